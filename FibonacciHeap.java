@@ -6,7 +6,7 @@
 
  * An implementation of a Fibonacci Heap over integers.
  */
-public class FibonacciHeap
+public class FibonacciHeap implements MeldableHeap<FibonacciHeap, FibonacciHeap.HeapNode>
 {
 
 		private HeapNode min;
@@ -21,7 +21,25 @@ public class FibonacciHeap
 		private static int countLinks=0;
 		private static int countCuts=0;
 
-        private static double phi = (1 + Math.sqrt(5))/2; //The golden ratio
+        private HeapNode[] buckets; // consolidation buckets, grown only when the rank bound grows
+
+        private final HeapMetrics metrics;
+        private HeapProfiler profiler; // null unless enableProfiling was called
+
+        private boolean deferMin; // set while decreaseKeys applies its cuts
+
+        private double purgeFraction; // 0 unless enableLazyDelete was called
+        private int countTombstones;
+
+        private NodeFrontier frontier; // scratch space of pollMin, kept between calls
+        private HeapNode[] extracted; // scratch space of pollMin
+        private HeapNode[] drained;   // scratch space of drainUpTo, separate so neither can clobber the other
+        private HeapNode[] walkStack; // scratch space of walk, kept between calls
+
+        private HeapNode[] pool; // recycled nodes, null unless enableNodePool was called
+        private int poolHead;
+        private int poolCount;
+        private boolean poolSafetyMode;
 
         
        /** 
@@ -40,9 +58,136 @@ public class FibonacciHeap
 			this.numTrees=0;
 			this.size=0;
 			this.countMarkNodes=0;
+			this.buckets=new HeapNode[0];
+			this.metrics=new HeapMetrics(this);
 			
 		}
 	
+	/**
+     * public void enableNodePool(int maxPoolSize, boolean safetyMode)
+     *
+     * Start recycling nodes: nodes freed by deleteMin/delete are kept (up to maxPoolSize of them)
+     * and handed out again by insert, instead of allocating a new HeapNode per key.
+     * A recycled node must not be used by the caller anymore.
+     *
+     * In safety mode pooled nodes are reused in FIFO order, so a stale node stays detectable for as long as possible,
+     * and decreaseKey/delete throw IllegalStateException when given a node that is sitting in the pool.
+     * Every recycling also bumps the node's generation (see HeapNode.getGeneration()),
+     * so callers can tell a reused node apart from the one they were handed.
+     *
+     * Complexity: O(maxPoolSize)
+     */
+	public void enableNodePool(int maxPoolSize, boolean safetyMode) {
+		this.pool = new HeapNode[Math.max(maxPoolSize, 1)];
+		this.poolHead = 0;
+		this.poolCount = 0;
+		this.poolSafetyMode = safetyMode;
+	}
+
+	/**
+     * public int getPoolCount()
+     *
+     * Return the number of nodes currently waiting in the pool.
+     *
+     * Complexity: O(1)
+     */
+	public int getPoolCount() {
+		return this.poolCount;
+	}
+
+	/**
+     * private HeapNode newNode(int key)
+     *
+     * Return a fresh lone node holding key, taken from the pool when one is available.
+     *
+     * Complexity: O(1)
+     */
+	private HeapNode newNode(int key) {
+		if (this.poolCount == 0) {
+			return new HeapNode(key);
+		}
+		int index;
+		if (this.poolSafetyMode) { // oldest first
+			index = this.poolHead;
+			this.poolHead = (this.poolHead + 1) % this.pool.length;
+		}
+		else { // newest first, still warm in cache
+			index = (this.poolHead + this.poolCount - 1) % this.pool.length;
+		}
+		this.poolCount--;
+		HeapNode node = this.pool[index];
+		this.pool[index] = null;
+		node.pooled = false;
+		node.removed = false;
+		node.key = key;
+		return node;
+	}
+
+	/**
+     * private void recycle(HeapNode node)
+     *
+     * Clear the links of a node that left the heap and keep it for reuse if the pool has room.
+     *
+     * Complexity: O(1)
+     */
+	private void recycle(HeapNode node) {
+		node.removed = true;
+		if (this.pool == null || this.poolCount == this.pool.length) {
+			return;
+		}
+		node.rank = 0;
+		node.mark = false;
+		node.child = null;
+		node.parent = null;
+		node.next = node;
+		node.prev = node;
+		node.KMinPointer = null;
+		node.tombstone = false;
+		node.pooled = true;
+		node.generation++;
+		this.pool[(this.poolHead + this.poolCount) % this.pool.length] = node;
+		this.poolCount++;
+	}
+
+	/**
+     * private void checkNotPooled(HeapNode x)
+     *
+     * In safety mode, reject a node that was already freed and is waiting in the pool.
+     *
+     * Complexity: O(1)
+     */
+	private void checkNotPooled(HeapNode x) {
+		if (this.poolSafetyMode && x.pooled) {
+			throw new IllegalStateException("node was deleted and recycled");
+		}
+	}
+
+	/**
+     * private void checkNotRemoved(HeapNode x)
+     *
+     * Reject a node that already left the heap through deleteMin, pollMin, drainUpTo or delete.
+     *
+     * Complexity: O(1)
+     */
+	private void checkNotRemoved(HeapNode x) {
+		if (x.removed) {
+			throw new IllegalStateException("node was deleted");
+		}
+	}
+
+	/**
+     * private void checkNotTombstone(HeapNode x)
+     *
+     * Reject a node that was deleted lazily and is waiting to be purged.
+     *
+     * Complexity: O(1)
+     */
+	private void checkNotTombstone(HeapNode x) {
+		if (x.tombstone) {
+			throw new IllegalStateException("node was deleted");
+		}
+	}
+
 	/**
      * public HeapNode getFirst()
      *
@@ -58,13 +203,43 @@ public class FibonacciHeap
 	/**
      * public int getSize()
      *
-     * Return the number of nodes in the heap
+     * Return the number of nodes in the heap (tombstoned nodes excluded).
      *
      * Complexity: O(1)
      */
 		
 	public int getSize() {
-		return this.size;
+		return this.size - this.countTombstones;
+	}
+
+	/**
+     * public int getCountTombstones()
+     *
+     * Return the number of nodes deleted lazily but still physically in the heap.
+     *
+     * Complexity: O(1)
+     */
+
+    public int getCountTombstones() {
+		return this.countTombstones;
+	}
+
+	/**
+     * public void enableLazyDelete(double purgeFraction)
+     *
+     * Switch delete to lazy mode: delete(x) only tombstones x in O(1), and x is physically removed when it becomes
+     * the minimum (during deleteMin) or when tombstones exceed purgeFraction of the physical size,
+     * at which point all of them are purged with one traversal and one consolidation.
+     * size(), findMin() and countersRep() only report live nodes.
+     * A tombstoned node may not be passed to decreaseKey/increaseKey anymore.
+     *
+     * Complexity: O(1)
+     */
+	public void enableLazyDelete(double purgeFraction) {
+		if (!(purgeFraction > 0 && purgeFraction <= 1)) {
+			throw new IllegalArgumentException("purgeFraction must be in (0, 1]: " + purgeFraction);
+		}
+		this.purgeFraction = purgeFraction;
 	}
 	
 	/**
@@ -141,7 +316,7 @@ public class FibonacciHeap
     */
     public HeapNode insert(int key)
     {    
-        HeapNode temp = new HeapNode(key);
+        HeapNode temp = this.newNode(key);
         if (this.first != null) {
             this.first.insertBefore(temp);
         }
@@ -152,6 +327,141 @@ public class FibonacciHeap
     	return temp;
     }
 
+   /**
+    * public void insertAll(int[] keys, boolean preLink)
+    *
+    * Inserts all keys in one pass: the new nodes are chained together and spliced into the root list once,
+    * with a single min update at the end.
+    * If preLink is true, new trees of equal rank are linked while loading (like a binary counter), so the heap gains
+    * O(log(k)) trees instead of k and the next deleteMin does not have to consolidate them all.
+    * The added keys are assumed not to already belong to the heap.
+    *
+    * Help functions: BulkLoader, consolidateConnect
+    * Complexity: O(k), k - number of keys
+    */
+    public void insertAll(int[] keys, boolean preLink)
+    {
+        BulkLoader loader = new BulkLoader(preLink, null);
+        for (int key : keys) {
+            loader.add(key);
+        }
+        loader.finish();
+    }
+
+   /**
+    * public HeapNode[] insertAllWithHandles(int[] keys, boolean preLink)
+    *
+    * Same as insertAll(int[], boolean), for callers that need the nodes later (for decreaseKey/delete).
+    *
+    * Complexity: O(k), k - number of keys
+    *
+    * Returns the created nodes, the i-th holding keys[i].
+    */
+    public HeapNode[] insertAllWithHandles(int[] keys, boolean preLink)
+    {
+        HeapNode[] handles = new HeapNode[keys.length];
+        BulkLoader loader = new BulkLoader(preLink, handles);
+        for (int key : keys) {
+            loader.add(key);
+        }
+        loader.finish();
+        return handles;
+    }
+
+   /**
+    * public void insertAll(java.util.stream.IntStream keys, boolean preLink)
+    *
+    * Same as insertAll(int[], boolean), consuming the stream in one pass without buffering it.
+    * The stream is consumed sequentially.
+    *
+    * Complexity: O(k), k - number of keys
+    */
+    public void insertAll(java.util.stream.IntStream keys, boolean preLink)
+    {
+        BulkLoader loader = new BulkLoader(preLink, null);
+        keys.sequential().forEach(loader::add);
+        loader.finish();
+    }
+
+   /**
+    * private class BulkLoader
+    *
+    * Collects new nodes into a detached chain of trees, then splices the chain into the root list.
+    * With preLink, trees are carried through the heap's consolidation buckets as they arrive.
+    */
+    private class BulkLoader {
+        private final boolean preLink;
+        private final HeapNode[] handles;
+        private HeapNode chainFirst;
+        private HeapNode chainMin;
+        private int chainTrees;
+        private int count;
+        private int maxRank = -1;
+
+        BulkLoader(boolean preLink, HeapNode[] handles) {
+            this.preLink = preLink;
+            this.handles = handles;
+        }
+
+        void add(int key) {
+            HeapNode node = FibonacciHeap.this.newNode(key);
+            if (this.handles != null) {
+                this.handles[this.count] = node;
+            }
+            this.count++;
+            if (!this.preLink) {
+                append(node);
+                return;
+            }
+            HeapNode[] buckets = FibonacciHeap.this.buckets;
+            int r = 0;
+            while (r < buckets.length && buckets[r] != null) {
+                node = consolidateConnect(buckets[r], node);
+                buckets[r] = null;
+                r++;
+            }
+            if (r >= buckets.length) {
+                buckets = java.util.Arrays.copyOf(buckets, 2 * r + 2);
+                FibonacciHeap.this.buckets = buckets;
+            }
+            buckets[r] = node;
+            this.maxRank = Math.max(this.maxRank, r);
+        }
+
+        private void append(HeapNode node) {
+            if (this.chainFirst == null) {
+                this.chainFirst = node;
+            }
+            else {
+                this.chainFirst.insertBefore(node);
+            }
+            this.chainTrees++;
+            if (this.chainMin == null || node.key < this.chainMin.key) {
+                this.chainMin = node;
+            }
+        }
+
+        void finish() {
+            HeapNode[] buckets = FibonacciHeap.this.buckets;
+            for (int r = 0; r <= this.maxRank; r++) {
+                if (buckets[r] != null) {
+                    append(buckets[r]);
+                    buckets[r] = null;
+                }
+            }
+            if (this.chainFirst == null) {
+                return;
+            }
+            if (FibonacciHeap.this.first != null) {
+                FibonacciHeap.this.first.insertBefore(this.chainFirst, this.chainFirst.prev);
+            }
+            FibonacciHeap.this.first = this.chainFirst;
+            FibonacciHeap.this.size += this.count;
+            FibonacciHeap.this.numTrees += this.chainTrees;
+            FibonacciHeap.this.replaceMin(this.chainMin);
+        }
+    }
+
     /**
     * private void removeMinNode()
     *
@@ -211,7 +521,7 @@ public class FibonacciHeap
     */
     private HeapNode consolidateConnect(HeapNode node1, HeapNode node2) {
         var minHeapNode = node1.key < node2.key ? node1 : node2;
-		var maxHeapNode = node1.key > node2.key ? node1 : node2;
+		var maxHeapNode = minHeapNode == node1 ? node2 : node1; // on equal keys node2 stays the root
 		if (minHeapNode.mark) {
 	        minHeapNode.mark = false;
 	        this.countMarkNodes--;
@@ -229,6 +539,7 @@ public class FibonacciHeap
         }
         minHeapNode.setRank(minHeapNode.getRank()+1); //update rank because child was added
         countLinks++;
+        this.metrics.increment(HeapMetrics.Counter.LINKS);
         return minHeapNode;
     }
 
@@ -236,16 +547,36 @@ public class FibonacciHeap
     * public void consolidate()
     *
     * Consolidate trees by linking them with consolidateConnect so that we will have O(log(n)) trees, each with a different rank, using the "buckets" method we saw in lecture.
+    * The buckets array belongs to the heap and is only reallocated when the rank bound grows, so a steady-state call allocates nothing.
+    * Every bucket is left empty on return.
     *
     * Help functions: HeapNode.resetMarkedInChain, HeapNode.nulifyParentInChain, HeapNode.insertBefore
     * Complexity: O(k-1+m), k - number of trees in heap (before deletion of min used prior) / m - number of subtrees of root with minimum key (m = O(logn))
     *
     */
     public void consolidate() {
-        HeapNode[] heapArr = new HeapNode[(int)(Math.log(this.size)/Math.log(FibonacciHeap.phi)) + 1]; // the "buckets" array
+        if (this.profiler == null) {
+            this.doConsolidate();
+            return;
+        }
+        ConsolidateEvent event = new ConsolidateEvent();
+        long start = this.profiler.begin(event, this);
+        this.doConsolidate();
+        this.profiler.end(event, start, this.profiler.consolidate, this);
+    }
+
+    private void doConsolidate() {
+        this.metrics.recordConsolidation(this.numTrees);
+        // rank <= log_phi(n) = 1.44 * log2(n) < 2 * bitLength(n)
+        int bound = 2 * (32 - Integer.numberOfLeadingZeros(this.size)) + 1;
+        if (this.buckets.length < bound) {
+            this.buckets = new HeapNode[bound];
+        }
+        HeapNode[] heapArr = this.buckets; // the "buckets" array
         HeapNode currNode = this.first;
         HeapNode tempNode;
         int currRank;
+        int maxRank = -1;
         int tempCount = this.numTrees;
         for (int i = 0; i < tempCount; i++) {
             tempNode = currNode;
@@ -261,11 +592,16 @@ public class FibonacciHeap
             }
             heapArr[currRank] = tempNode;
             tempNode.setRank(currRank);
+            if (currRank > maxRank) {
+                maxRank = currRank;
+            }
         }
         this.min=null;
         this.first=null;
-        for (HeapNode heapNode : heapArr) {
+        for (int r = 0; r <= maxRank; r++) {
+            HeapNode heapNode = heapArr[r];
             if (heapNode != null) { // go over the buckets and start inserting all trees back to the heap
+                heapArr[r] = null;
                 if (this.first==null) {
                     this.first = heapNode;
                 }
@@ -288,21 +624,334 @@ public class FibonacciHeap
     *
     */
     public void deleteMin()
+    {
+        if (this.profiler == null) {
+            this.doDeleteMin();
+            return;
+        }
+        DeleteMinEvent event = new DeleteMinEvent();
+        long start = this.profiler.begin(event, this);
+        this.doDeleteMin();
+        this.profiler.end(event, start, this.profiler.deleteMin, this);
+    }
+
+    private void doDeleteMin()
+    {
+        this.extractMin();
+        this.skipTombstones();
+    }
+
+    /** Tombstones that reached the minimum are removed for real, so findMin always returns a live node. */
+    private void skipTombstones()
+    {
+        while (this.countTombstones > 0 && this.min != null && this.min.tombstone) {
+            this.extractMin();
+        }
+    }
+
+    private void extractMin()
     {
         if (this.isEmpty()) {return;}
+        HeapNode minNode = this.min;
+        if (minNode.tombstone) {
+            this.countTombstones--;
+        }
         if (this.size == 1) { //If empty no need to do anything
             this.min = null;
             this.first = null;
             this.size--;
             this.numTrees--;
+            this.recycle(minNode);
             return;
         }
         this.removeMinNode();
         this.consolidate();
+        this.recycle(minNode);
 
      	return;
     }
 
+   /**
+    * public int pollMin(int[] dest, int k)
+    *
+    * Deletes the k nodes with the smallest keys and writes their keys to dest[0..k-1] in ascending order.
+    * The k nodes are found with a small frontier heap, seeded with the roots. Each node polled from the frontier is
+    * removed from the heap right away with removeRoot, which moves its children up to the root list and into the
+    * frontier, so the next candidate is always a root. Trees are not linked until all k are taken; then one
+    * consolidation runs, instead of the k consolidations of k deleteMin calls.
+    * If the heap holds fewer than k nodes, all of them are taken.
+    *
+    * Help functions: NodeFrontier, removeRoot, consolidate
+    * Complexity: O(t + k*log(n)), t - number of trees in heap
+    *
+    * Returns the number of keys written to dest.
+    */
+    public int pollMin(int[] dest, int k)
+    {
+        int count = Math.min(k, this.size());
+        if (count > dest.length) {
+            throw new IllegalArgumentException("dest holds " + dest.length + " keys, " + count + " requested");
+        }
+        if (count <= 0) {
+            return 0;
+        }
+        if (this.frontier == null) {
+            this.frontier = new NodeFrontier();
+        }
+        if (this.extracted == null || this.extracted.length < count) {
+            this.extracted = new HeapNode[Math.max(count, 16)];
+        }
+        NodeFrontier front = this.frontier;
+        HeapNode[] taken = this.extracted;
+        int takenCount = 0;
+        front.pushSiblings(this.first);
+        for (int i = 0; i < count; ) {
+            // a node is taken after its parent, so it is a root by now; its children become roots and candidates
+            HeapNode node = front.poll();
+            if (takenCount == taken.length) {
+                taken = java.util.Arrays.copyOf(taken, 2 * takenCount);
+                this.extracted = taken;
+            }
+            taken[takenCount++] = node;
+            this.removeRoot(node, front);
+            if (node.tombstone) { // lazily deleted nodes on the way are dropped for real
+                this.countTombstones--;
+            }
+            else {
+                dest[i++] = node.key;
+            }
+        }
+        front.clear();
+        if (this.size == 0) {
+            this.min = null;
+            this.first = null;
+        }
+        else {
+            this.consolidate();
+        }
+        for (int i = 0; i < takenCount; i++) {
+            this.recycle(taken[i]);
+            taken[i] = null;
+        }
+        this.skipTombstones();
+        return count;
+    }
+
+   /**
+    * public int drainUpTo(int threshold, IntConsumer sink)
+    *
+    * Deletes every node whose key is at most threshold and passes its key to sink, in no particular order.
+    * By heap order only the subtrees whose root matches can hold matches, so they are collected by a walk that
+    * stops at the first key above threshold, removed parent first (so each is a root when removed),
+    * and followed by a single consolidation, instead of one per deleteMin.
+    * The walk has to look at every root, since roots are not ordered: right after a run of inserts the heap has
+    * t = O(n) roots and a call costs O(t) however few keys match. That scan is no more than the consolidation that
+    * follows it, which links those t roots and is paid from their potential, as in deleteMin; when nothing matches
+    * (min above threshold) the call is O(1).
+    * sink is called once the heap is consistent again, and must not modify the heap.
+    *
+    * Help functions: removeRoot, consolidate
+    * Complexity: O(t + m*deg) worst case, O(m*deg + log(n)) amortized, t - number of trees in heap,
+    * m - number of matching nodes
+    *
+    * Returns the number of keys passed to sink.
+    */
+    public int drainUpTo(int threshold, java.util.function.IntConsumer sink)
+    {
+        if (this.min == null || this.min.key > threshold) {
+            return 0;
+        }
+        HeapNode[] taken = this.drained == null ? new HeapNode[16] : this.drained;
+        int count = 0;
+        HeapNode iter = this.first;
+        do {
+            if (iter.key <= threshold) {
+                if (count == taken.length) {
+                    taken = java.util.Arrays.copyOf(taken, 2 * count);
+                }
+                taken[count++] = iter;
+            }
+            iter = iter.next;
+        } while (iter != this.first);
+        for (int i = 0; i < count; i++) { // taken doubles as the queue of the walk, so parents precede children
+            HeapNode child = taken[i].child;
+            if (child == null) {
+                continue;
+            }
+            iter = child;
+            do {
+                if (iter.key <= threshold) {
+                    if (count == taken.length) {
+                        taken = java.util.Arrays.copyOf(taken, 2 * count);
+                    }
+                    taken[count++] = iter;
+                }
+                iter = iter.next;
+            } while (iter != child);
+        }
+        this.drained = taken;
+        for (int i = 0; i < count; i++) {
+            this.removeRoot(taken[i], null);
+        }
+        if (this.size == 0) {
+            this.min = null;
+            this.first = null;
+        }
+        else {
+            this.consolidate();
+        }
+        int drained = 0;
+        for (int i = 0; i < count; i++) {
+            HeapNode node = taken[i];
+            taken[i] = null;
+            if (node.tombstone) {
+                this.countTombstones--;
+            }
+            else {
+                sink.accept(node.key);
+                drained++;
+            }
+            this.recycle(node);
+        }
+        this.skipTombstones();
+        return drained;
+    }
+
+   /**
+    * public int countBelow(int threshold)
+    *
+    * Returns the number of nodes whose key is at most threshold, without changing the heap.
+    * Like drainUpTo, it only walks into subtrees whose root matches.
+    *
+    * Complexity: O(t + m*deg), t - number of trees in heap, m - number of matching nodes
+    */
+    public int countBelow(int threshold)
+    {
+        if (this.min == null || this.min.key > threshold) {
+            return 0;
+        }
+        int[] res = new int[1];
+        this.walk(node -> {
+            if (node.key > threshold) {
+                return false; // by heap order nothing below matches either
+            }
+            if (!node.tombstone) {
+                res[0]++;
+            }
+            return true;
+        });
+        return res[0];
+    }
+
+    /** Callback of walk. */
+    private interface NodeVisitor {
+        /** Called once for every node reached; returns true to walk into the node's children. */
+        boolean visit(HeapNode node);
+    }
+
+   /**
+    * private void walk(NodeVisitor visitor)
+    *
+    * Depth-first walk over the trees with an explicit stack of sibling rings, kept between calls.
+    * The links of a node are read before it is visited, so visitor may recycle the node, but must not
+    * otherwise change the heap.
+    *
+    * Complexity: O(number of nodes visited)
+    */
+    private void walk(NodeVisitor visitor)
+    {
+        if (this.first == null) {
+            return;
+        }
+        HeapNode[] stack = this.walkStack == null ? new HeapNode[64] : this.walkStack;
+        int top = 0;
+        stack[top++] = this.first;
+        while (top > 0) { // every stack entry is the first of a sibling ring
+            HeapNode ring = stack[--top];
+            stack[top] = null;
+            HeapNode iter = ring;
+            do {
+                HeapNode child = iter.child;
+                HeapNode next = iter.next;
+                if (visitor.visit(iter) && child != null) {
+                    if (top == stack.length) {
+                        stack = java.util.Arrays.copyOf(stack, 2 * top);
+                    }
+                    stack[top++] = child;
+                }
+                iter = next;
+            } while (iter != ring);
+        }
+        this.walkStack = stack;
+    }
+
+   /**
+    * private void promoteChildren(HeapNode node, NodeFrontier children)
+    *
+    * Move all children of the root node to the root list, just before node, unmarking them.
+    * If children is not null, every promoted child is also pushed to it, in the same walk.
+    *
+    * Complexity: O(m), m - number of children of node
+    */
+    private void promoteChildren(HeapNode node, NodeFrontier children)
+    {
+        HeapNode firstChild = node.child;
+        if (firstChild == null) {
+            return;
+        }
+        HeapNode iter = firstChild;
+        do {
+            iter.parent = null;
+            if (iter.mark) {
+                iter.mark = false;
+                this.countMarkNodes--;
+            }
+            if (children != null) {
+                children.push(iter);
+            }
+            this.numTrees++;
+            iter = iter.next;
+        } while (iter != firstChild);
+        node.insertBefore(firstChild, firstChild.prev);
+        node.child = null;
+        node.rank = 0;
+    }
+
+   /**
+    * private void removeRoot(HeapNode node, NodeFrontier children)
+    *
+    * Remove the root node from the heap: its children become roots and it is unlinked from the root list.
+    * If children is not null, every promoted child is also pushed to it, in the same walk.
+    * min is not updated; the caller consolidates or otherwise restores it.
+    *
+    * Help functions: promoteChildren
+    * Complexity: O(m), m - number of children of node (times log of the frontier size when pushing)
+    */
+    private void removeRoot(HeapNode node, NodeFrontier children)
+    {
+        HeapNode firstChild = node.child;
+        this.promoteChildren(node, children);
+        HeapNode rightBrother = node.next;
+        if (rightBrother == node) {
+            this.first = null;
+        }
+        else {
+            HeapNode leftBrother = node.prev;
+            rightBrother.prev = leftBrother;
+            leftBrother.next = rightBrother;
+            if (this.first == node) {
+                this.first = firstChild != null ? firstChild : rightBrother;
+            }
+        }
+        if (this.min == node) {
+            this.min = this.first;
+        }
+        node.next = node;
+        node.prev = node;
+        this.numTrees--;
+        this.size--;
+    }
+
    /**
     * public HeapNode findMin()
     *
@@ -319,7 +968,7 @@ public class FibonacciHeap
    /**
     * public void meld (FibonacciHeap heap2)
     *
-    * Melds heap2 with the current heap.
+    * Melds heap2 with the current heap; heap2 is left empty.
     *
     * Help functions: FibonacciHeap.insertBefore, replaceMin
     * Complexity: O(1)
@@ -327,6 +976,9 @@ public class FibonacciHeap
     */
     public void meld (FibonacciHeap heap2)
     {
+        if (heap2 == this) {
+            return;
+        }
         if (this.first != null && heap2.first != null) {
             HeapNode node1 = this.first;
             HeapNode node2 = this.first.getPrev();
@@ -334,6 +986,7 @@ public class FibonacciHeap
             this.size = this.size + heap2.size;
             this.numTrees = this.numTrees + heap2.numTrees;
             this.countMarkNodes = this.countMarkNodes + heap2.countMarkNodes;
+            this.countTombstones = this.countTombstones + heap2.countTombstones;
             this.replaceMin(heap2.min);
         }
         else if (this.first == null && heap2.first != null) {
@@ -342,7 +995,14 @@ public class FibonacciHeap
             this.min = heap2.min;
             this.numTrees = heap2.numTrees;
             this.countMarkNodes = heap2.countMarkNodes;
+            this.countTombstones = heap2.countTombstones;
         }
+        heap2.min = null;
+        heap2.first = null;
+        heap2.size = 0;
+        heap2.numTrees = 0;
+        heap2.countMarkNodes = 0;
+        heap2.countTombstones = 0;
         		
     }
 
@@ -355,22 +1015,110 @@ public class FibonacciHeap
     */
     public int size()
     {
-    	return this.size;
+    	return this.size - this.countTombstones;
     }
-    	
-    /**
-    * public int[] countersRep()
+
+   /**
+    * private void tombstone(HeapNode x)
     *
-    * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
-    * (Note: The size of of the array depends on the maximum order of a tree.)  
-    * 
-    * 
-    * Help functions:findMaxRank()
-    * Complexity: O(n)
-    * 
+    * Lazily delete x: mark it as deleted and keep it in the heap. If it is the minimum it is removed right away,
+    * so findMin always returns a live node; if too many tombstones accumulated they are all purged.
+    *
+    * Help functions: doDeleteMin, purgeTombstones
+    * Complexity: O(1), amortized O(log(n)) when x is the minimum
+    */
+    private void tombstone(HeapNode x)
+    {
+        if (x.tombstone) {
+            return;
+        }
+        x.tombstone = true;
+        this.countTombstones++;
+        if (this.countTombstones == this.size) { // nothing live is left
+            this.walk(node -> {
+                this.recycle(node); // back to the node pool, if there is one
+                return true;
+            });
+            this.min = null;
+            this.first = null;
+            this.size = 0;
+            this.numTrees = 0;
+            this.countMarkNodes = 0;
+            this.countTombstones = 0;
+        }
+        else if (x == this.min) {
+            this.doDeleteMin();
+        }
+        else if (this.countTombstones > this.purgeFraction * this.size) {
+            this.purgeTombstones();
+        }
+    }
+
+   /**
+    * private void purgeTombstones()
+    *
+    * Physically remove every tombstoned node: walk all trees to find them, cut each from its parent,
+    * remove it as a root (its children become roots) and consolidate once.
+    *
+    * Help functions: cascadingCut, removeRoot, consolidate
+    * Complexity: O(n)
+    */
+    private void purgeTombstones()
+    {
+        HeapNode[] found = new HeapNode[this.countTombstones];
+        int[] count = new int[1];
+        this.walk(node -> {
+            if (node.tombstone) {
+                found[count[0]++] = node;
+            }
+            return true;
+        });
+        int foundCount = count[0];
+        this.deferMin = true;
+        try {
+            for (int i = 0; i < foundCount; i++) {
+                if (found[i].parent != null) {
+                    cascadingCut(found[i], found[i].parent);
+                }
+            }
+        }
+        finally {
+            this.deferMin = false;
+        }
+        for (int i = 0; i < foundCount; i++) {
+            this.removeRoot(found[i], null);
+        }
+        this.countTombstones = 0;
+        if (this.size == 0) {
+            this.min = null;
+            this.first = null;
+        }
+        else {
+            this.min = this.first;
+            this.consolidate();
+        }
+        for (int i = 0; i < foundCount; i++) {
+            this.recycle(found[i]);
+        }
+    }
+    	
+    /**
+    * public int[] countersRep()
+    *
+    * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+    * (Note: The size of of the array depends on the maximum order of a tree.)  
+    * Lazily deleted nodes are skipped without changing the heap: a tombstoned root is not counted,
+    * and its subtrees are counted as the trees they will become once it is purged.
+    * 
+    * Help functions:findMaxRank()
+    * Complexity: O(n)
+    * 
     */
     public int[] countersRep()
     {
+        if (this.countTombstones > 0) {
+        	return this.liveCountersRep();
+        }
         if (this.isEmpty()==true) {
         	int[] res = new int[0];
         	return res;
@@ -393,6 +1141,50 @@ public class FibonacciHeap
     }
     
     
+   /**
+    * private int[] liveCountersRep()
+    *
+    * countersRep while tombstones are pending: walks down through tombstoned roots to the live trees below them.
+    *
+    * Complexity: O(n)
+    */
+    private int[] liveCountersRep()
+    {
+        // rank <= log_phi(n) < 2 * bitLength(n), as in consolidate
+        int[] res = new int[2 * (32 - Integer.numberOfLeadingZeros(this.size)) + 1];
+        this.walk(node -> { // a tombstoned root stands for the would-be roots below it
+            if (node.tombstone) {
+                return true;
+            }
+            res[node.getRank()]++;
+            return false;
+        });
+        int length = res.length;
+        while (length > 0 && res[length - 1] == 0) {
+            length--;
+        }
+        return java.util.Arrays.copyOf(res, length);
+    }
+
+   /**
+    * private int countUnmarkedTombstones()
+    *
+    * Walk all trees and count the lazily deleted nodes that are not marked.
+    *
+    * Complexity: O(n)
+    */
+    private int countUnmarkedTombstones()
+    {
+        int[] res = new int[1];
+        this.walk(node -> {
+            if (node.tombstone && !node.mark) {
+                res[0]++;
+            }
+            return true;
+        });
+        return res[0];
+    }
+
     /**
      *  public int findMaxRank()
      *
@@ -424,16 +1216,23 @@ public class FibonacciHeap
     public void delete(HeapNode x) 
   //implemented using Decrease-key and delete-min
     {    
+    	this.checkNotPooled(x);
+    	this.checkNotRemoved(x);
+    	if (this.purgeFraction > 0) {
+    		this.tombstone(x);
+    		return;
+    	}
     	//this is the min
     	if (this.size==1) {
     		this.min=null;
     		this.first=null;
     		this.numTrees--;
     		this.size--;
+    		this.recycle(x);
  
     	}
     	else {
-    		this.decreaseKey(x,x.getKey() + 1 - this.min.getKey());
+    		this.profiledDecreaseKey(x,x.getKey() + 1 - this.min.getKey());
     		deleteMin();
     		
     	}
@@ -445,6 +1244,7 @@ public class FibonacciHeap
     *
     * Decreases the key of the node x by a non-negative value delta. The structure of the heap should be updated
     * to reflect this change (for example, the cascading cuts procedure should be applied if needed).
+    * Throws IllegalArgumentException if delta is negative and IllegalStateException if x was already deleted.
     * 
     * Help functions:cascadingCut()
     * 
@@ -452,6 +1252,30 @@ public class FibonacciHeap
     */
     public void decreaseKey(HeapNode x, int delta)
     {    
+        if (delta < 0) {
+            throw new IllegalArgumentException("delta must be non-negative: " + delta);
+        }
+        this.profiledDecreaseKey(x, delta);
+    }
+
+    /** decreaseKey without the delta check, for delete, whose delta to below the minimum may wrap around. */
+    private void profiledDecreaseKey(HeapNode x, int delta)
+    {
+        if (this.profiler == null) {
+            this.doDecreaseKey(x, delta);
+            return;
+        }
+        DecreaseKeyEvent event = new DecreaseKeyEvent();
+        long start = this.profiler.begin(event, this);
+        this.doDecreaseKey(x, delta);
+        this.profiler.end(event, start, this.profiler.decreaseKey, this);
+    }
+
+    private void doDecreaseKey(HeapNode x, int delta)
+    {    
+    this.checkNotPooled(x);
+    this.checkNotRemoved(x);
+    this.checkNotTombstone(x);
     //if x is root
     if (x.getParent()==null) {
     	x.setKey(x.getKey()-delta);
@@ -460,15 +1284,118 @@ public class FibonacciHeap
     	x.setKey(x.getKey()-delta);
 	    //check if there is violation
 	    if (x.getKey()<x.getParent().getKey()) {
-	    	cascadingCut(x,x.getParent()); //Complexity O(log(n)) //doesn't implement yet!
+	    	this.cutFromParent(x); //Complexity O(log(n))
 	    }
 	   
 	}
 	    //check if after the decrease we have to change the current min
-	if (x.getKey()<this.min.getKey()) {
+	if (!this.deferMin && x.getKey()<this.min.getKey()) {
 		this.min=x;
 	}
     }
+
+   /**
+    * private void cutFromParent(HeapNode x)
+    *
+    * Cut the non-root node x from its parent with cascading cuts, recording the cascade in the metrics
+    * (and in the profiler, when profiling).
+    *
+    * Help functions:cascadingCut()
+    * Complexity:O(1) amortized
+    */
+    private void cutFromParent(HeapNode x)
+    {
+        long cutsBefore = this.metrics.get(HeapMetrics.Counter.CUTS);
+        if (this.profiler == null) {
+            cascadingCut(x,x.getParent());
+        }
+        else {
+            CascadingCutEvent event = new CascadingCutEvent();
+            long start = this.profiler.begin(event, this);
+            cascadingCut(x,x.getParent());
+            event.depth = (int) (this.metrics.get(HeapMetrics.Counter.CUTS) - cutsBefore);
+            this.profiler.end(event, start, this.profiler.cascadingCut, this);
+        }
+        this.metrics.recordCascade(this.metrics.get(HeapMetrics.Counter.CUTS) - cutsBefore);
+    }
+
+   /**
+    * public void increaseKey(HeapNode x, int delta)
+    *
+    * Increases the key of the node x by a non-negative value delta, keeping x in the heap (the handle stays valid).
+    * A non-root x is cut from its parent (with cascading cuts, as in decreaseKey, so the rank bounds keep holding),
+    * and the children of x, which may now be smaller than x, are moved up to the root list.
+    * Only if x was the minimum are the roots consolidated to find the new minimum.
+    *
+    * Amortized cost: the cut is O(1) amortized as in decreaseKey, moving the rank(x) = O(log(n)) children up
+    * raises the potential by O(log(n)), and the consolidation when x was the minimum is paid like deleteMin's.
+    * This replaces delete(x) followed by insert, which always consolidates.
+    *
+    * Help functions:cutFromParent(), promoteChildren(), consolidate()
+    * Complexity:O(log(n)) amortized
+    */
+    public void increaseKey(HeapNode x, int delta)
+    {
+        this.checkNotPooled(x);
+        this.checkNotRemoved(x);
+        this.checkNotTombstone(x);
+        if (delta == 0) {
+            return;
+        }
+        if (x.getParent() != null) {
+            this.cutFromParent(x);
+        }
+        x.setKey(x.getKey() + delta);
+        this.promoteChildren(x, null);
+        if (this.min == x) {
+            this.consolidate();
+            this.skipTombstones();
+        }
+    }
+
+   /**
+    * public void decreaseKeys(HeapNode[] nodes, int[] deltas, int count)
+    *
+    * Decreases the key of nodes[i] by deltas[i] for i = 0..count-1, with the same keys as count decreaseKey calls.
+    * The cuts are coalesced: every key is decreased first, and only then is each node compared with its parent,
+    * so a node whose parent was decreased in the same batch and is still not above it stays where it is, and needs
+    * no cut (and no mark or cascade above it). Cascades of nodes sharing ancestors also stop at an ancestor
+    * already cut to the root list. min is updated once at the end.
+    * If nodes[i] is rejected (a deleted node or a negative delta), nodes[0..i-1] stay decreased and min reflects
+    * them, as after the first i single calls.
+    *
+    * Help functions: cutFromParent(), replaceMin()
+    * Complexity: O(count) amortized
+    */
+    public void decreaseKeys(HeapNode[] nodes, int[] deltas, int count)
+    {
+        int done = 0;
+        try {
+            for (; done < count; done++) {
+                HeapNode x = nodes[done];
+                this.checkNotPooled(x);
+                this.checkNotRemoved(x);
+                this.checkNotTombstone(x);
+                if (deltas[done] < 0) {
+                    throw new IllegalArgumentException("delta must be non-negative: " + deltas[done]);
+                }
+                x.key -= deltas[done];
+            }
+        }
+        finally {
+            for (int i = 0; i < done; i++) { // all keys are final, so each comparison is the last one needed
+                HeapNode x = nodes[i];
+                if (x.parent != null && x.key < x.parent.key) {
+                    this.cutFromParent(x);
+                }
+            }
+            for (int i = 0; i < done; i++) {
+                if (nodes[i].parent == null) { // a node left in its tree is never below its root
+                    this.replaceMin(nodes[i]);
+                }
+            }
+        }
+    }
    
     
 
@@ -476,12 +1403,16 @@ public class FibonacciHeap
     * public int nonMarked() 
     *
     * This function returns the current number of non-marked items in the heap
+    * (lazily deleted nodes excluded, so it never exceeds size()).
     * 
-    * Complexity:O(1)
+    * Complexity:O(1), O(n) while lazily deleted nodes are pending
     * 
     */
     public int nonMarked() 
     {    
+        if (this.countTombstones > 0) {
+            return this.size - this.countMarkNodes - this.countUnmarkedTombstones();
+        }
         return this.size-this.countMarkNodes;
     }
 
@@ -501,6 +1432,49 @@ public class FibonacciHeap
         return this.numTrees+2*this.countMarkNodes;
     }
 
+   /**
+    * public HeapProfiler enableProfiling()
+    *
+    * Start timing deleteMin, consolidate, decreaseKey and cascading cuts into latency histograms,
+    * and emitting the matching JFR events (FibonacciHeap.DeleteMin etc.) whenever a recording enables them.
+    * While profiling is off these operations pay a single null check.
+    *
+    * Complexity:O(1)
+    *
+    * Returns the profiler holding the histograms.
+    */
+    public HeapProfiler enableProfiling()
+    {
+        if (this.profiler == null) {
+            this.profiler = new HeapProfiler();
+        }
+        return this.profiler;
+    }
+
+   /**
+    * public void disableProfiling()
+    *
+    * Stop timing operations. Histograms recorded so far stay readable through the profiler returned earlier.
+    *
+    * Complexity:O(1)
+    */
+    public void disableProfiling()
+    {
+        this.profiler = null;
+    }
+
+   /**
+    * public HeapMetrics getMetrics()
+    *
+    * Return the operation metrics of this heap. They can be read from any thread.
+    *
+    * Complexity:O(1)
+    */
+    public HeapMetrics getMetrics()
+    {
+        return this.metrics;
+    }
+
    /**
     * public static int totalLinks() 
     *
@@ -508,6 +1482,7 @@ public class FibonacciHeap
     * run-time of the program. A link operation is the operation which gets as input two
     * trees of the same rank, and generates a tree of rank bigger by one, by hanging the
     * tree which has larger value in its root under the other tree.
+    * The count is shared by all heaps in the JVM; use getMetrics() for the links of one heap.
     * 
     * Complexity:O(log(n))
     */
@@ -522,6 +1497,7 @@ public class FibonacciHeap
     * This static function returns the total number of cut operations made during the
     * run-time of the program. A cut operation is the operation which disconnects a subtree
     * from its parent (during decreaseKey/delete methods). 
+    * The count is shared by all heaps in the JVM; use getMetrics() for the cuts of one heap.
     * 
     * Complexity:O(1)
     */
@@ -551,12 +1527,14 @@ public class FibonacciHeap
 	        if(xParent.getMarked()==false) {
 		        xParent.setMarked(true);
 		        this.countMarkNodes++;
+		        this.metrics.increment(HeapMetrics.Counter.MARKS);
 		    }
 	        else {
 	        	cascadingCut(xParent,xParent.getParent());
 	        }
 	        }
 	    FibonacciHeap.countCuts++;
+	    this.metrics.increment(HeapMetrics.Counter.CUTS);
     }
     
     
@@ -598,7 +1576,9 @@ public class FibonacciHeap
             }
             this.first = x;
             this.numTrees++;
-            this.replaceMin(x);
+            if (!this.deferMin) {
+                this.replaceMin(x);
+            }
 	
 	        }
         }
@@ -631,12 +1611,14 @@ public class FibonacciHeap
     	HeapNode minFibH=H.findMin();
     	HeapNode addedNode=helperFib.insert(minFibH.getKey());
     	addedNode.setKMinPointer(minFibH);
-    	for (int i=0;i<k;i++) {
+    	for (int i=0;i<k && !helperFib.isEmpty();) {
     		minFibH=helperFib.findMin();
-    		res[i]=minFibH.getKey();
+    		HeapNode currMinHelpKMinPTR=minFibH.getKMinPointer();
+    		if (!currMinHelpKMinPTR.tombstone) { // lazily deleted nodes are skipped, their children still count
+    			res[i++]=minFibH.getKey();
+    		}
     		helperFib.deleteMin();
     		
-    		HeapNode currMinHelpKMinPTR=minFibH.getKMinPointer();
     		if(currMinHelpKMinPTR.getChild()!=null) {
     			HeapNode currMinHelpKMinPTRSon=currMinHelpKMinPTR.getChild();
     			do {
@@ -652,7 +1634,215 @@ public class FibonacciHeap
 
      }
 
-    
+   /**
+    * public PrimitiveIterator.OfInt sortedIterator()
+    *
+    * Returns an iterator over the keys of the heap in ascending order, for a heap of any shape.
+    * Unlike kMin it does not need k in advance and does not build a helper heap: a small frontier heap starts with
+    * the roots, and each key taken adds the children of its node. The heap itself is not changed, and the work done
+    * is only for the keys actually pulled. Lazily deleted nodes are skipped.
+    * The heap must not be modified while the iterator is in use.
+    *
+    * Help functions: NodeFrontier
+    * Complexity: O(t) to start, O(log(t + k*deg)) per key, t - number of trees in heap, k - keys pulled so far
+    */
+    public java.util.PrimitiveIterator.OfInt sortedIterator()
+    {
+        return new SortedIterator(this.first);
+    }
+
+   /**
+    * public IntStream sortedKeys()
+    *
+    * Returns the keys of the heap in ascending order as a lazy IntStream over sortedIterator(),
+    * so sortedKeys().limit(k) only walks the top of the heap.
+    *
+    * Complexity: as sortedIterator()
+    */
+    public java.util.stream.IntStream sortedKeys()
+    {
+        java.util.Spliterator.OfInt keys = java.util.Spliterators.spliterator(this.sortedIterator(), this.size(),
+                java.util.Spliterator.ORDERED | java.util.Spliterator.SORTED | java.util.Spliterator.NONNULL);
+        return java.util.stream.StreamSupport.intStream(keys, false);
+    }
+
+    private static final class SortedIterator implements java.util.PrimitiveIterator.OfInt {
+        private final NodeFrontier front = new NodeFrontier();
+        private HeapNode pending; // next live node to return, taken from the frontier ahead of nextInt
+
+        SortedIterator(HeapNode first) {
+            this.front.pushSiblings(first);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.pending == null && !this.front.isEmpty()) {
+                HeapNode node = this.front.poll();
+                this.front.pushSiblings(node.child);
+                if (!node.tombstone) {
+                    this.pending = node;
+                }
+            }
+            return this.pending != null;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!this.hasNext()) {
+                throw new java.util.NoSuchElementException();
+            }
+            int key = this.pending.key;
+            this.pending = null;
+            return key;
+        }
+    }
+
+   /**
+    * public Spliterator.OfInt keySpliterator()
+    *
+    * Returns an unordered Spliterator over all keys of the heap, for scans that do not need key order.
+    * A spliterator covers runs of siblings (each with its whole subtree); it splits a run of roots or children in
+    * two halves, and a single tree into its root and the run of its children, so a parallel stream fans out over
+    * the root list first and then down the trees. Nothing is copied and the heap is not changed.
+    * The top-level spliterator reports SIZED (size() is exact) unless lazily deleted nodes are present;
+    * split-off parts only estimate their size. The heap must not be modified while the spliterator is in use.
+    *
+    * Complexity: O(1) to create, O(n) for a full traversal; a split costs O(deg) at most.
+    */
+    public java.util.Spliterator.OfInt keySpliterator()
+    {
+        return new KeySpliterator(this.first, this.numTrees, this.size(), this.countTombstones == 0);
+    }
+
+   /**
+    * public IntStream keys()
+    *
+    * Returns all keys of the heap as an unordered IntStream over keySpliterator();
+    * keys().parallel() scans the heap on several threads.
+    *
+    * Complexity: as keySpliterator()
+    */
+    public java.util.stream.IntStream keys()
+    {
+        return java.util.stream.StreamSupport.intStream(this.keySpliterator(), false);
+    }
+
+    private static final class KeySpliterator implements java.util.Spliterator.OfInt {
+        // a stack of segments: count siblings from node on, each with its subtree; count -1 is the node alone
+        private HeapNode[] nodes = new HeapNode[16];
+        private int[] counts = new int[16];
+        private int top;
+        private long est;
+        private boolean sized;
+
+        KeySpliterator(HeapNode node, int count, long est, boolean sized) {
+            if (node != null && count != 0) {
+                this.push(node, count);
+            }
+            this.est = est;
+            this.sized = sized;
+        }
+
+        private void push(HeapNode node, int count) {
+            if (this.top == this.nodes.length) {
+                this.nodes = java.util.Arrays.copyOf(this.nodes, 2 * this.top);
+                this.counts = java.util.Arrays.copyOf(this.counts, 2 * this.top);
+            }
+            this.nodes[this.top] = node;
+            this.counts[this.top++] = count;
+        }
+
+        /** Take the next node off the stack, pushing its right siblings and its children. */
+        private HeapNode pop() {
+            HeapNode node = this.nodes[--this.top];
+            int count = this.counts[this.top];
+            this.nodes[this.top] = null;
+            if (count > 1) {
+                this.push(node.next, count - 1);
+            }
+            if (count > 0 && node.child != null) {
+                this.push(node.child, node.rank); // rank is the number of children
+            }
+            return node;
+        }
+
+        @Override
+        public boolean tryAdvance(java.util.function.IntConsumer action) {
+            while (this.top > 0) {
+                HeapNode node = this.pop();
+                if (!node.tombstone) {
+                    if (this.est > 0) {
+                        this.est--;
+                    }
+                    action.accept(node.key);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(java.util.function.IntConsumer action) {
+            while (this.top > 0) {
+                HeapNode node = this.pop();
+                if (!node.tombstone) {
+                    action.accept(node.key);
+                }
+            }
+            this.est = 0;
+        }
+
+        @Override
+        public java.util.Spliterator.OfInt trySplit() {
+            if (this.top == 0) {
+                return null;
+            }
+            HeapNode node = this.nodes[0];
+            int count = this.counts[0];
+            long part;
+            KeySpliterator res;
+            if (this.top > 1) { // hand off the oldest segment, it is the closest to the roots
+                System.arraycopy(this.nodes, 1, this.nodes, 0, this.top - 1);
+                System.arraycopy(this.counts, 1, this.counts, 0, this.top - 1);
+                this.nodes[--this.top] = null;
+                part = this.est / 2;
+                res = new KeySpliterator(node, count, part, false);
+            }
+            else if (count >= 2) { // split the run of siblings in two halves
+                int half = count >>> 1;
+                HeapNode mid = node;
+                for (int i = 0; i < half; i++) {
+                    mid = mid.next;
+                }
+                this.nodes[0] = mid;
+                this.counts[0] = count - half;
+                part = this.est * half / count;
+                res = new KeySpliterator(node, half, part, false);
+            }
+            else if (count == 1 && node.child != null) { // a single tree: keep its root, hand off its children
+                this.counts[0] = -1;
+                part = Math.max(this.est - 1, 0);
+                res = new KeySpliterator(node.child, node.rank, part, false);
+            }
+            else {
+                return null;
+            }
+            this.est -= part;
+            this.sized = false;
+            return res;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.est;
+        }
+
+        @Override
+        public int characteristics() {
+            return java.util.Spliterator.NONNULL | (this.sized ? java.util.Spliterator.SIZED : 0);
+        }
+    }
+
    /**
     * public class HeapNode
     * 
@@ -660,7 +1850,7 @@ public class FibonacciHeap
     * (for example HeapNode), do it in this file, not in another file. 
     *  
     */
-    public static class HeapNode{
+    public static class HeapNode implements MeldableHeap.Node {
 
     	
     	private int key;
@@ -671,6 +1861,10 @@ public class FibonacciHeap
     	private HeapNode next;
     	private HeapNode prev;
         private HeapNode KMinPointer;
+        private boolean pooled;
+        private int generation;
+        private boolean tombstone;
+        private boolean removed; // set once the node left the heap, cleared when a pool hands it out again
 
     	
         /** 
@@ -693,6 +1887,10 @@ public class FibonacciHeap
     		this.next=this;
     		this.prev=this;
             this.KMinPointer = null;
+            this.pooled = false;
+            this.generation = 0;
+            this.tombstone = false;
+            this.removed = false;
     		
     	}
     	
@@ -888,6 +2086,18 @@ public class FibonacciHeap
     		this.KMinPointer=node;
     	}
         
+        /**
+         * public int getGeneration()
+         *
+         * Return how many times this node was recycled by a node pool. See FibonacciHeap.enableNodePool.
+         *
+         * Complexity: O(1)
+         */
+
+        public int getGeneration() {
+    		return this.generation;
+    	}
+
         /**
          * private void insertBefore(HeapNode node)
          *
@@ -962,4 +2172,9372 @@ public class FibonacciHeap
         
     }
 
+   /**
+    * public static class ArrayFibonacciHeap
+    *
+    * A Fibonacci Heap over integers that keeps its nodes in parallel primitive arrays instead of HeapNode objects.
+    * A node is identified by an int handle (its index in the arrays): insert returns it, decreaseKey/delete take it.
+    * Handles of deleted nodes are reused by later inserts, so a handle is only valid while its node is in the heap;
+    * decreaseKey, delete and getKey reject a deleted handle with IllegalStateException until its slot is reused.
+    *
+    * Footprint: 25 bytes per node (six int slots and one boolean slot), against 48 bytes for a HeapNode
+    * (object header, two ints, a boolean and five compressed references) plus the reference the caller keeps.
+    * The arrays are plain data, so the garbage collector never traces the heap structure.
+    * Throughput is not better than the object heap's (see Benchmark.benchArrayHeap): a node's fields sit in seven
+    * arrays, so every node visited costs seven bounds checks and, once the heap outgrows the cache, up to seven
+    * cache misses, where the fields of a HeapNode share one or two cache lines. The gain is memory and GC time.
+    */
+    public static class ArrayFibonacciHeap {
+
+        public static final int NONE = -1;
+
+        private static final int DEFAULT_CAPACITY = 16;
+
+        private int[] key;
+        private int[] rank;
+        private int[] parent;
+        private int[] child;
+        private int[] next;
+        private int[] prev;
+        private boolean[] mark;
+
+        private int used;     // number of slots ever handed out
+        private int freeList; // released slots, chained through next[]
+
+        private int min;
+        private int first;
+
+        private int numTrees;
+        private int size;
+        private int countMarkNodes;
+
+        private int countLinks;
+        private int countCuts;
+
+        private int[] buckets; // consolidation buckets, grown only when the rank bound grows
+
+       /**
+        * Constructor of ArrayFibonacciHeap!
+        *
+        * public ArrayFibonacciHeap()
+        *
+        * Initializing an empty heap with a small initial capacity.
+        *
+        * Complexity: O(1)
+        */
+        public ArrayFibonacciHeap() {
+            this(DEFAULT_CAPACITY);
+        }
+
+       /**
+        * Constructor of ArrayFibonacciHeap!
+        *
+        * public ArrayFibonacciHeap(int initialCapacity)
+        *
+        * Initializing an empty heap whose arrays can hold initialCapacity nodes before growing.
+        *
+        * Complexity: O(initialCapacity)
+        */
+        public ArrayFibonacciHeap(int initialCapacity) {
+            int capacity = Math.max(initialCapacity, 1);
+            this.key = new int[capacity];
+            this.rank = new int[capacity];
+            this.parent = new int[capacity];
+            this.child = new int[capacity];
+            this.next = new int[capacity];
+            this.prev = new int[capacity];
+            this.mark = new boolean[capacity];
+            this.buckets = new int[0];
+            this.used = 0;
+            this.freeList = NONE;
+            this.min = NONE;
+            this.first = NONE;
+            this.numTrees = 0;
+            this.size = 0;
+            this.countMarkNodes = 0;
+        }
+
+       /**
+        * private void ensureCapacity(int capacity)
+        *
+        * Grow all node arrays so that they can hold at least capacity nodes.
+        *
+        * Complexity: O(capacity) when growing, O(1) otherwise.
+        */
+        private void ensureCapacity(int capacity) {
+            if (capacity <= this.key.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, this.key.length + (this.key.length >> 1) + 1);
+            this.key = java.util.Arrays.copyOf(this.key, newCapacity);
+            this.rank = java.util.Arrays.copyOf(this.rank, newCapacity);
+            this.parent = java.util.Arrays.copyOf(this.parent, newCapacity);
+            this.child = java.util.Arrays.copyOf(this.child, newCapacity);
+            this.next = java.util.Arrays.copyOf(this.next, newCapacity);
+            this.prev = java.util.Arrays.copyOf(this.prev, newCapacity);
+            this.mark = java.util.Arrays.copyOf(this.mark, newCapacity);
+        }
+
+       /**
+        * private int allocate()
+        *
+        * Return a free slot, reusing released slots first.
+        *
+        * Complexity: O(1) amortized
+        */
+        private int allocate() {
+            if (this.freeList != NONE) {
+                int h = this.freeList;
+                this.freeList = this.next[h];
+                return h;
+            }
+            ensureCapacity(this.used + 1);
+            return this.used++;
+        }
+
+       /**
+        * private void release(int h)
+        *
+        * Return slot h to the free list.
+        *
+        * Complexity: O(1)
+        */
+        private void release(int h) {
+            this.rank[h] = NONE; // marks the slot free, see checkHandle
+            this.parent[h] = NONE;
+            this.child[h] = NONE;
+            this.next[h] = this.freeList;
+            this.freeList = h;
+        }
+
+       /**
+        * private void checkHandle(int h)
+        *
+        * Reject a handle that was never handed out, with IllegalArgumentException, or whose node was deleted
+        * (its slot is on the free list or was reused), with IllegalStateException.
+        *
+        * Complexity: O(1)
+        */
+        private void checkHandle(int h) {
+            if (h < 0 || h >= this.used) {
+                throw new IllegalArgumentException("not a node handle of this heap: " + h);
+            }
+            if (this.rank[h] == NONE) {
+                throw new IllegalStateException("node was deleted");
+            }
+        }
+
+       /**
+        * private void insertBefore(int h, int first, int last)
+        *
+        * Add the chain first..last as left siblings of node h.
+        *
+        * Complexity: O(1)
+        */
+        private void insertBefore(int h, int first, int last) {
+            int temp = this.prev[h];
+            this.next[last] = h;
+            this.prev[h] = last;
+            this.next[temp] = first;
+            this.prev[first] = temp;
+        }
+
+       /**
+        * private void addRoot(int h)
+        *
+        * Add the lone node h to the root list as the first tree and update min.
+        *
+        * Complexity: O(1)
+        */
+        private void addRoot(int h) {
+            if (this.first != NONE) {
+                insertBefore(this.first, h, h);
+            }
+            this.first = h;
+            this.numTrees++;
+            if (this.min == NONE || this.key[h] < this.key[this.min]) {
+                this.min = h;
+            }
+        }
+
+       /**
+        * public int insert(int key)
+        *
+        * Creates a node which contains the given key, and inserts it into the heap.
+        *
+        * Complexity: O(1) amortized
+        *
+        * Returns the handle of the newly created node.
+        */
+        public int insert(int key) {
+            int h = allocate();
+            this.key[h] = key;
+            this.rank[h] = 0;
+            this.mark[h] = false;
+            this.parent[h] = NONE;
+            this.child[h] = NONE;
+            this.next[h] = h;
+            this.prev[h] = h;
+            addRoot(h);
+            this.size++;
+            return h;
+        }
+
+       /**
+        * public int findMin()
+        *
+        * Returns the handle of the node whose key is minimal, or NONE if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public int findMin() {
+            return this.min;
+        }
+
+       /**
+        * public int getKey(int h)
+        *
+        * Returns the key of node h.
+        *
+        * Complexity: O(1)
+        */
+        public int getKey(int h) {
+            checkHandle(h);
+            return this.key[h];
+        }
+
+       /**
+        * public int getFirst()
+        *
+        * Returns the handle of the first root, or NONE if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public int getFirst() {
+            return this.first;
+        }
+
+       /**
+        * public void deleteMin()
+        *
+        * Deletes the node containing the minimum key: its children become roots and the trees are consolidated.
+        *
+        * Complexity: O(log(n)) amortized
+        */
+        public void deleteMin() {
+            if (this.size == 0) {
+                return;
+            }
+            int z = this.min;
+            if (this.size == 1) {
+                release(z);
+                this.min = NONE;
+                this.first = NONE;
+                this.numTrees = 0;
+                this.size = 0;
+                return;
+            }
+            int c = this.child[z];
+            if (c != NONE) {
+                int iter = c;
+                do {
+                    this.parent[iter] = NONE;
+                    if (this.mark[iter]) {
+                        this.mark[iter] = false;
+                        this.countMarkNodes--;
+                    }
+                    this.numTrees++;
+                    iter = this.next[iter];
+                } while (iter != c);
+                insertBefore(z, c, this.prev[c]);
+            }
+            int n = this.next[z];
+            int p = this.prev[z];
+            this.next[p] = n;
+            this.prev[n] = p;
+            if (this.first == z) {
+                this.first = c != NONE ? c : n;
+            }
+            this.numTrees--;
+            this.size--;
+            release(z);
+            consolidate();
+        }
+
+       /**
+        * private int link(int a, int b)
+        *
+        * Hang the root with the bigger key as the left-most child of the other root.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the handle of the root with the smaller key.
+        */
+        private int link(int a, int b) {
+            if (this.key[b] < this.key[a]) {
+                int temp = a;
+                a = b;
+                b = temp;
+            }
+            if (this.mark[a]) {
+                this.mark[a] = false;
+                this.countMarkNodes--;
+            }
+            int c = this.child[a];
+            this.child[a] = b;
+            this.parent[b] = a;
+            if (c == NONE) {
+                this.next[b] = b;
+                this.prev[b] = b;
+            }
+            else {
+                insertBefore(c, b, b);
+            }
+            this.rank[a]++;
+            this.countLinks++;
+            return a;
+        }
+
+       /**
+        * private void consolidate()
+        *
+        * Link trees of equal rank until every rank appears at most once, using the buckets method.
+        *
+        * Complexity: O(k + log(n)), k - number of trees in heap
+        */
+        private void consolidate() {
+            // rank <= log_phi(n) < 2 * bitLength(n)
+            int bound = 2 * (32 - Integer.numberOfLeadingZeros(this.size)) + 1;
+            if (this.buckets.length < bound) {
+                this.buckets = new int[bound];
+                java.util.Arrays.fill(this.buckets, NONE);
+            }
+            int curr = this.first;
+            int maxRank = -1;
+            int count = this.numTrees;
+            for (int i = 0; i < count; i++) {
+                int t = curr;
+                curr = this.next[curr];
+                this.next[t] = t;
+                this.prev[t] = t;
+                int r = this.rank[t];
+                while (this.buckets[r] != NONE) {
+                    t = link(this.buckets[r], t);
+                    this.numTrees--;
+                    this.buckets[r] = NONE;
+                    r++;
+                }
+                this.buckets[r] = t;
+                if (r > maxRank) {
+                    maxRank = r;
+                }
+            }
+            this.min = NONE;
+            this.first = NONE;
+            for (int r = 0; r <= maxRank; r++) {
+                int t = this.buckets[r];
+                if (t != NONE) {
+                    this.buckets[r] = NONE;
+                    if (this.first == NONE) {
+                        this.first = t;
+                    }
+                    else {
+                        insertBefore(this.first, t, t);
+                    }
+                    if (this.min == NONE || this.key[t] < this.key[this.min]) {
+                        this.min = t;
+                    }
+                }
+            }
+        }
+
+       /**
+        * public void decreaseKey(int h, int delta)
+        *
+        * Decreases the key of node h by a non-negative value delta, applying cascading cuts if needed.
+        * Throws IllegalStateException if the node of h was already deleted.
+        *
+        * Complexity: O(1) amortized
+        */
+        public void decreaseKey(int h, int delta) {
+            checkHandle(h);
+            this.key[h] -= delta;
+            int p = this.parent[h];
+            if (p != NONE && this.key[h] < this.key[p]) {
+                cascadingCut(h, p);
+            }
+            if (this.key[h] < this.key[this.min]) {
+                this.min = h;
+            }
+        }
+
+       /**
+        * public void delete(int h)
+        *
+        * Deletes node h from the heap; throws IllegalStateException if it was already deleted.
+        * h is cut to the root list and made the minimum, so no key arithmetic can overflow.
+        *
+        * Complexity: O(log(n)) amortized
+        */
+        public void delete(int h) {
+            checkHandle(h);
+            int p = this.parent[h];
+            if (p != NONE) {
+                cascadingCut(h, p);
+            }
+            this.min = h;
+            deleteMin();
+        }
+
+       /**
+        * private void cascadingCut(int x, int xParent)
+        *
+        * Cut x from xParent and keep cutting up the tree as long as the parent was already marked.
+        *
+        * Complexity: O(1) amortized
+        */
+        private void cascadingCut(int x, int xParent) {
+            while (true) {
+                cut(x, xParent);
+                this.countCuts++;
+                int grandParent = this.parent[xParent];
+                if (grandParent == NONE) {
+                    return;
+                }
+                if (!this.mark[xParent]) {
+                    this.mark[xParent] = true;
+                    this.countMarkNodes++;
+                    return;
+                }
+                x = xParent;
+                xParent = grandParent;
+            }
+        }
+
+       /**
+        * private void cut(int x, int xParent)
+        *
+        * Cuts node x from its parent xParent and adds it as a new tree.
+        *
+        * Complexity: O(1)
+        */
+        private void cut(int x, int xParent) {
+            this.rank[xParent]--;
+            if (this.next[x] == x) {
+                this.child[xParent] = NONE;
+            }
+            else {
+                this.next[this.prev[x]] = this.next[x];
+                this.prev[this.next[x]] = this.prev[x];
+                if (this.child[xParent] == x) {
+                    this.child[xParent] = this.next[x];
+                }
+            }
+            if (this.mark[x]) {
+                this.mark[x] = false;
+                this.countMarkNodes--;
+            }
+            this.parent[x] = NONE;
+            this.next[x] = x;
+            this.prev[x] = x;
+            addRoot(x);
+        }
+
+       /**
+        * public int meld(ArrayFibonacciHeap heap2)
+        *
+        * Melds heap2 into the current heap. heap2's nodes are copied into this heap's arrays,
+        * so a handle h of heap2 becomes h + offset in this heap, and heap2 is left empty.
+        *
+        * Complexity: O(m), m - number of slots used by heap2 (the copy); the splice itself is O(1).
+        *
+        * Returns offset.
+        */
+        public int meld(ArrayFibonacciHeap heap2) {
+            int offset = this.used;
+            if (heap2.used == 0) {
+                return offset;
+            }
+            int m = heap2.used;
+            ensureCapacity(offset + m);
+            System.arraycopy(heap2.key, 0, this.key, offset, m);
+            System.arraycopy(heap2.rank, 0, this.rank, offset, m);
+            System.arraycopy(heap2.mark, 0, this.mark, offset, m);
+            for (int i = 0; i < m; i++) {
+                this.parent[offset + i] = shift(heap2.parent[i], offset);
+                this.child[offset + i] = shift(heap2.child[i], offset);
+                this.next[offset + i] = shift(heap2.next[i], offset);
+                this.prev[offset + i] = shift(heap2.prev[i], offset);
+            }
+            this.used = offset + m;
+            // move heap2's released slots to our free list
+            for (int h = heap2.freeList; h != NONE; h = heap2.next[h]) {
+                release(h + offset);
+            }
+            if (heap2.first != NONE) {
+                int first2 = heap2.first + offset;
+                if (this.first == NONE) {
+                    this.first = first2;
+                    this.min = heap2.min + offset;
+                }
+                else {
+                    insertBefore(this.first, first2, this.prev[first2]);
+                    if (this.key[heap2.min + offset] < this.key[this.min]) {
+                        this.min = heap2.min + offset;
+                    }
+                }
+            }
+            this.size += heap2.size;
+            this.numTrees += heap2.numTrees;
+            this.countMarkNodes += heap2.countMarkNodes;
+            this.countLinks += heap2.countLinks;
+            this.countCuts += heap2.countCuts;
+            heap2.used = 0;
+            heap2.freeList = NONE;
+            heap2.min = NONE;
+            heap2.first = NONE;
+            heap2.size = 0;
+            heap2.numTrees = 0;
+            heap2.countMarkNodes = 0;
+            return offset;
+        }
+
+        private static int shift(int h, int offset) {
+            return h == NONE ? NONE : h + offset;
+        }
+
+       /**
+        * public int size()
+        *
+        * Returns the number of elements in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public int size() {
+            return this.size;
+        }
+
+       /**
+        * public boolean isEmpty()
+        *
+        * Returns true if and only if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+       /**
+        * public int getNumTrees()
+        *
+        * Return the number of trees in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public int getNumTrees() {
+            return this.numTrees;
+        }
+
+       /**
+        * public int getCountMarkNodes()
+        *
+        * Return the number of mark nodes.
+        *
+        * Complexity: O(1)
+        */
+        public int getCountMarkNodes() {
+            return this.countMarkNodes;
+        }
+
+       /**
+        * public int[] countersRep()
+        *
+        * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+        *
+        * Complexity: O(k), k - number of trees in heap
+        */
+        public int[] countersRep() {
+            if (this.size == 0) {
+                return new int[0];
+            }
+            int[] res = new int[findMaxRank() + 1];
+            int iter = this.first;
+            do {
+                res[this.rank[iter]]++;
+                iter = this.next[iter];
+            } while (iter != this.first);
+            return res;
+        }
+
+       /**
+        * public int findMaxRank()
+        *
+        * Return the max rank of the all trees in the heap.
+        *
+        * Complexity: O(k), k - number of trees in heap
+        */
+        public int findMaxRank() {
+            int maxRank = this.rank[this.first];
+            int iter = this.next[this.first];
+            while (iter != this.first) {
+                maxRank = Math.max(maxRank, this.rank[iter]);
+                iter = this.next[iter];
+            }
+            return maxRank;
+        }
+
+       /**
+        * public int nonMarked()
+        *
+        * Returns the current number of non-marked items in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public int nonMarked() {
+            return this.size - this.countMarkNodes;
+        }
+
+       /**
+        * public int potential()
+        *
+        * Returns the current potential of the heap: #trees + 2*#marked.
+        *
+        * Complexity: O(1)
+        */
+        public int potential() {
+            return this.numTrees + 2 * this.countMarkNodes;
+        }
+
+       /**
+        * public int totalLinks()
+        *
+        * Returns the number of link operations made by this heap.
+        *
+        * Complexity: O(1)
+        */
+        public int totalLinks() {
+            return this.countLinks;
+        }
+
+       /**
+        * public int totalCuts()
+        *
+        * Returns the number of cut operations made by this heap.
+        *
+        * Complexity: O(1)
+        */
+        public int totalCuts() {
+            return this.countCuts;
+        }
+    }
+
+   /**
+    * public interface IndexedIntHeap
+    *
+    * A min-heap of int keys over dense int IDs in [0, capacity), the interface graph algorithms need:
+    * each ID is in the heap at most once and its key can only decrease while it is there.
+    * Implemented by IndexedFibonacciHeap, IndexedBinaryHeap and IndexedPairingHeap, so the same algorithm run
+    * can be timed on each of them, and by IndexedRadixHeap for monotone runs (Dijkstra, A* with a consistent bound).
+    */
+    public interface IndexedIntHeap {
+
+        int NONE = -1;
+
+        /** Inserts id with the given key; id must not be in the heap. */
+        void insert(int id, int key);
+
+        /** Sets the key of id, which must be in the heap, to newKey, which must not be greater than its key. */
+        void decreaseKey(int id, int newKey);
+
+        /** Returns true if and only if id is in the heap. */
+        boolean contains(int id);
+
+        /** Returns the key of id, which must be in the heap. */
+        int keyOf(int id);
+
+        /** Returns the id whose key is minimal, or NONE if the heap is empty. */
+        int minId();
+
+        /** Deletes the id whose key is minimal and returns it, or returns NONE if the heap is empty. */
+        int deleteMin();
+
+        int size();
+
+        boolean isEmpty();
+
+        /** Returns the number of IDs the heap accepts, 0..capacity-1. */
+        int capacity();
+
+        /**
+         * Returns true if the heap only accepts monotone use: no key below the last one taken by deleteMin.
+         * Algorithms whose keys can go below the current minimum (GraphAlgorithms.prim) reject such heaps.
+         */
+        default boolean isMonotone() {
+            return false;
+        }
+    }
+
+   /**
+    * public static class IndexedBinaryHeap
+    *
+    * The array-based binary heap behind the IndexedIntHeap interface, as a baseline for IndexedFibonacciHeap:
+    * insert, decreaseKey and deleteMin are all O(log(n)) worst case, with a small constant and good locality.
+    */
+    public static class IndexedBinaryHeap implements IndexedIntHeap {
+
+        private final int[] heap; // heap[i] is the id at heap position i
+        private final int[] pos;  // pos[id] is the heap position of id, NONE if id is not in the heap
+        private final int[] key;  // key[id], valid while id is in the heap
+        private int size;
+
+       /**
+        * Constructor of IndexedBinaryHeap!
+        *
+        * public IndexedBinaryHeap(int capacity)
+        *
+        * Initializing an empty heap for the IDs 0..capacity-1.
+        *
+        * Complexity: O(capacity)
+        */
+        public IndexedBinaryHeap(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+            }
+            this.heap = new int[capacity];
+            this.pos = new int[capacity];
+            this.key = new int[capacity];
+            java.util.Arrays.fill(this.pos, NONE);
+        }
+
+        private void checkId(int id) {
+            if (id < 0 || id >= this.pos.length) {
+                throw new IllegalArgumentException("id " + id + " is out of range [0, " + this.pos.length + ")");
+            }
+        }
+
+        private int position(int id) {
+            checkId(id);
+            if (this.pos[id] == NONE) {
+                throw new IllegalArgumentException("id " + id + " is not in the heap");
+            }
+            return this.pos[id];
+        }
+
+        @Override
+        public void insert(int id, int key) {
+            checkId(id);
+            if (this.pos[id] != NONE) {
+                throw new IllegalArgumentException("id " + id + " is already in the heap");
+            }
+            this.key[id] = key;
+            siftUp(this.size++, id);
+        }
+
+        @Override
+        public void decreaseKey(int id, int newKey) {
+            int i = position(id);
+            if (newKey > this.key[id]) {
+                throw new IllegalArgumentException("new key " + newKey + " is greater than current key " + this.key[id]);
+            }
+            this.key[id] = newKey;
+            siftUp(i, id);
+        }
+
+        @Override
+        public boolean contains(int id) {
+            return id >= 0 && id < this.pos.length && this.pos[id] != NONE;
+        }
+
+        @Override
+        public int keyOf(int id) {
+            position(id);
+            return this.key[id];
+        }
+
+        @Override
+        public int minId() {
+            return this.size == 0 ? NONE : this.heap[0];
+        }
+
+        @Override
+        public int deleteMin() {
+            if (this.size == 0) {
+                return NONE;
+            }
+            int res = this.heap[0];
+            this.pos[res] = NONE;
+            int last = this.heap[--this.size];
+            if (this.size > 0) {
+                siftDown(0, last);
+            }
+            return res;
+        }
+
+        /** Move id up from the free position i to its place. */
+        private void siftUp(int i, int id) {
+            int k = this.key[id];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                int p = this.heap[parent];
+                if (this.key[p] <= k) {
+                    break;
+                }
+                this.heap[i] = p;
+                this.pos[p] = i;
+                i = parent;
+            }
+            this.heap[i] = id;
+            this.pos[id] = i;
+        }
+
+        /** Move id down from the free position i to its place. */
+        private void siftDown(int i, int id) {
+            int k = this.key[id];
+            int half = this.size >>> 1;
+            while (i < half) {
+                int c = 2 * i + 1;
+                if (c + 1 < this.size && this.key[this.heap[c + 1]] < this.key[this.heap[c]]) {
+                    c++;
+                }
+                int child = this.heap[c];
+                if (k <= this.key[child]) {
+                    break;
+                }
+                this.heap[i] = child;
+                this.pos[child] = i;
+                i = c;
+            }
+            this.heap[i] = id;
+            this.pos[id] = i;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        @Override
+        public int capacity() {
+            return this.pos.length;
+        }
+    }
+
+   /**
+    * public static class IndexedPairingHeap
+    *
+    * A pairing heap behind the IndexedIntHeap interface, kept in int arrays indexed by id.
+    * insert and decreaseKey link a single tree to the root in O(1); deleteMin merges the root's children
+    * with the two-pass pairing, O(log(n)) amortized. It often beats the Fibonacci heap in practice
+    * because it does less bookkeeping per node.
+    */
+    public static class IndexedPairingHeap implements IndexedIntHeap {
+
+        private final int[] key;
+        private final int[] child; // leftmost child
+        private final int[] next;  // right sibling
+        private final int[] prev;  // left sibling, or the parent for a leftmost child
+        private final boolean[] inHeap;
+        private int root = NONE;
+        private int size;
+
+       /**
+        * Constructor of IndexedPairingHeap!
+        *
+        * public IndexedPairingHeap(int capacity)
+        *
+        * Initializing an empty heap for the IDs 0..capacity-1.
+        *
+        * Complexity: O(capacity)
+        */
+        public IndexedPairingHeap(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+            }
+            this.key = new int[capacity];
+            this.child = new int[capacity];
+            this.next = new int[capacity];
+            this.prev = new int[capacity];
+            this.inHeap = new boolean[capacity];
+        }
+
+        private void checkId(int id) {
+            if (id < 0 || id >= this.key.length) {
+                throw new IllegalArgumentException("id " + id + " is out of range [0, " + this.key.length + ")");
+            }
+        }
+
+        private void checkInHeap(int id) {
+            checkId(id);
+            if (!this.inHeap[id]) {
+                throw new IllegalArgumentException("id " + id + " is not in the heap");
+            }
+        }
+
+        /** Link the roots a and b (both without siblings); returns the new root. */
+        private int link(int a, int b) {
+            if (this.key[b] < this.key[a]) {
+                int temp = a;
+                a = b;
+                b = temp;
+            }
+            int c = this.child[a];
+            this.next[b] = c;
+            if (c != NONE) {
+                this.prev[c] = b;
+            }
+            this.prev[b] = a;
+            this.child[a] = b;
+            return a;
+        }
+
+        @Override
+        public void insert(int id, int key) {
+            checkId(id);
+            if (this.inHeap[id]) {
+                throw new IllegalArgumentException("id " + id + " is already in the heap");
+            }
+            this.inHeap[id] = true;
+            this.key[id] = key;
+            this.child[id] = NONE;
+            this.next[id] = NONE;
+            this.prev[id] = NONE;
+            this.root = this.root == NONE ? id : link(this.root, id);
+            this.size++;
+        }
+
+        @Override
+        public void decreaseKey(int id, int newKey) {
+            checkInHeap(id);
+            if (newKey > this.key[id]) {
+                throw new IllegalArgumentException("new key " + newKey + " is greater than current key " + this.key[id]);
+            }
+            this.key[id] = newKey;
+            if (id == this.root) {
+                return;
+            }
+            int p = this.prev[id]; // cut the subtree of id and link it to the root
+            if (this.child[p] == id) {
+                this.child[p] = this.next[id];
+            }
+            else {
+                this.next[p] = this.next[id];
+            }
+            if (this.next[id] != NONE) {
+                this.prev[this.next[id]] = p;
+            }
+            this.next[id] = NONE;
+            this.prev[id] = NONE;
+            this.root = link(this.root, id);
+        }
+
+        @Override
+        public boolean contains(int id) {
+            return id >= 0 && id < this.key.length && this.inHeap[id];
+        }
+
+        @Override
+        public int keyOf(int id) {
+            checkInHeap(id);
+            return this.key[id];
+        }
+
+        @Override
+        public int minId() {
+            return this.root;
+        }
+
+        @Override
+        public int deleteMin() {
+            int res = this.root;
+            if (res == NONE) {
+                return NONE;
+            }
+            this.root = mergePairs(this.child[res]);
+            this.inHeap[res] = false;
+            this.child[res] = NONE;
+            this.size--;
+            return res;
+        }
+
+       /**
+        * private int mergePairs(int first)
+        *
+        * Two-pass pairing of the sibling list starting at first: link neighbours left to right, then link the
+        * results right to left. The results of the first pass are chained through prev, so no stack is needed.
+        *
+        * Complexity: O(m), m - number of siblings
+        *
+        * Returns the new root, or NONE if first is NONE.
+        */
+        private int mergePairs(int first) {
+            int last = NONE;
+            int a = first;
+            while (a != NONE) {
+                int b = this.next[a];
+                int rest = b == NONE ? NONE : this.next[b];
+                this.next[a] = NONE;
+                int m = a;
+                if (b != NONE) {
+                    this.next[b] = NONE;
+                    m = link(a, b);
+                }
+                this.prev[m] = last;
+                last = m;
+                a = rest;
+            }
+            if (last == NONE) {
+                return NONE;
+            }
+            int res = last;
+            last = this.prev[res];
+            this.prev[res] = NONE;
+            while (last != NONE) {
+                int before = this.prev[last];
+                this.prev[last] = NONE;
+                res = link(res, last);
+                last = before;
+            }
+            return res;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        @Override
+        public int capacity() {
+            return this.key.length;
+        }
+    }
+
+   /**
+    * public static class IndexedFibonacciHeap
+    *
+    * A Fibonacci Heap over integers whose elements are identified by dense int IDs in [0, capacity)
+    * instead of node handles, as graph algorithms need (vertex id -> tentative distance).
+    * It is built on ArrayFibonacciHeap: handleOf[id] maps an ID to its node and idOf[handle] maps back,
+    * so no object is created and nothing is boxed on any operation.
+    * Each ID is in the heap at most once; it can be inserted again after it was deleted.
+    */
+    public static class IndexedFibonacciHeap implements IndexedIntHeap {
+
+        private final ArrayFibonacciHeap heap;
+        private final int[] handleOf; // id -> handle, NONE if the id is not in the heap
+        private final int[] idOf;     // handle -> id, valid while the handle is in use
+
+       /**
+        * Constructor of IndexedFibonacciHeap!
+        *
+        * public IndexedFibonacciHeap(int capacity)
+        *
+        * Initializing an empty heap for the IDs 0..capacity-1.
+        *
+        * Complexity: O(capacity)
+        */
+        public IndexedFibonacciHeap(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+            }
+            this.heap = new ArrayFibonacciHeap(capacity);
+            this.handleOf = new int[capacity];
+            java.util.Arrays.fill(this.handleOf, NONE);
+            this.idOf = new int[Math.max(capacity, 1)];
+        }
+
+       /**
+        * private int handle(int id)
+        *
+        * Returns the handle of id, throwing IllegalArgumentException if id is not in the heap.
+        *
+        * Complexity: O(1)
+        */
+        private int handle(int id) {
+            checkId(id);
+            int h = this.handleOf[id];
+            if (h == NONE) {
+                throw new IllegalArgumentException("id " + id + " is not in the heap");
+            }
+            return h;
+        }
+
+        private void checkId(int id) {
+            if (id < 0 || id >= this.handleOf.length) {
+                throw new IllegalArgumentException("id " + id + " is out of range [0, " + this.handleOf.length + ")");
+            }
+        }
+
+       /**
+        * public void insert(int id, int key)
+        *
+        * Inserts id with the given key. id must be in range and not already in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public void insert(int id, int key) {
+            checkId(id);
+            if (this.handleOf[id] != NONE) {
+                throw new IllegalArgumentException("id " + id + " is already in the heap");
+            }
+            int h = this.heap.insert(key); // freed handles are reused first, so h < capacity
+            this.idOf[h] = id;
+            this.handleOf[id] = h;
+        }
+
+       /**
+        * public boolean contains(int id)
+        *
+        * Returns true if and only if id is in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public boolean contains(int id) {
+            return id >= 0 && id < this.handleOf.length && this.handleOf[id] != NONE;
+        }
+
+       /**
+        * public int keyOf(int id)
+        *
+        * Returns the key of id, which must be in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public int keyOf(int id) {
+            return this.heap.getKey(handle(id));
+        }
+
+       /**
+        * public void decreaseKey(int id, int newKey)
+        *
+        * Sets the key of id to newKey, which must not be greater than its current key.
+        *
+        * Complexity: O(1) amortized
+        */
+        public void decreaseKey(int id, int newKey) {
+            int h = handle(id);
+            int key = this.heap.getKey(h);
+            if (newKey > key) {
+                throw new IllegalArgumentException("new key " + newKey + " is greater than current key " + key);
+            }
+            if (newKey < key) {
+                this.heap.decreaseKey(h, key - newKey);
+            }
+        }
+
+       /**
+        * public void delete(int id)
+        *
+        * Deletes id from the heap. id must be in the heap.
+        *
+        * Complexity: O(log(n)) amortized
+        */
+        public void delete(int id) {
+            int h = handle(id);
+            this.heap.delete(h);
+            this.handleOf[id] = NONE;
+        }
+
+       /**
+        * public int minId()
+        *
+        * Returns the id whose key is minimal, or NONE if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public int minId() {
+            int h = this.heap.findMin();
+            return h == NONE ? NONE : this.idOf[h];
+        }
+
+       /**
+        * public int minKey()
+        *
+        * Returns the minimal key. The heap must not be empty.
+        *
+        * Complexity: O(1)
+        */
+        public int minKey() {
+            int h = this.heap.findMin();
+            if (h == NONE) {
+                throw new IllegalStateException("heap is empty");
+            }
+            return this.heap.getKey(h);
+        }
+
+       /**
+        * public int deleteMin()
+        *
+        * Deletes the id whose key is minimal and returns it, or returns NONE if the heap is empty.
+        *
+        * Complexity: O(log(n)) amortized
+        */
+        public int deleteMin() {
+            int h = this.heap.findMin();
+            if (h == NONE) {
+                return NONE;
+            }
+            int id = this.idOf[h];
+            this.heap.deleteMin();
+            this.handleOf[id] = NONE;
+            return id;
+        }
+
+       /**
+        * public int size()
+        *
+        * Returns the number of IDs in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public int size() {
+            return this.heap.size();
+        }
+
+       /**
+        * public boolean isEmpty()
+        *
+        * Returns true if and only if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public boolean isEmpty() {
+            return this.heap.isEmpty();
+        }
+
+       /**
+        * public int capacity()
+        *
+        * Returns the number of IDs this heap accepts, 0..capacity-1.
+        *
+        * Complexity: O(1)
+        */
+        public int capacity() {
+            return this.handleOf.length;
+        }
+    }
+
+   /**
+    * public static class LongFibonacciHeap<V>
+    *
+    * A Fibonacci Heap whose priorities are longs (timestamps, costs, deadlines) and whose nodes carry a payload:
+    * an object value, an int value, or both. The key is a primitive field, so every comparison in linking and
+    * cutting stays a primitive comparison; there is no boxing and no Comparable. Sizes and counters are longs.
+    * Ties are allowed. A node belongs to at most one heap and is not reused after it was removed.
+    */
+    public static class LongFibonacciHeap<V> {
+
+        private Node<V> min;
+        private Node<V> first;
+
+        private long numTrees;
+        private long size;
+        private long countMarkNodes;
+        private boolean countsStale; // size and countMarkNodes are recounted on demand after splitOffTree
+        private Node<V> tallest; // a root of the highest rank at the last consolidation, for splitOffTree
+
+        private long countLinks;
+        private long countCuts;
+
+        private Node<V>[] buckets; // consolidation buckets, grown only when the rank bound grows
+
+       /**
+        * Constructor of LongFibonacciHeap!
+        *
+        * public LongFibonacciHeap()
+        *
+        * Initializing an empty heap.
+        *
+        * Complexity: O(1)
+        */
+        public LongFibonacciHeap() {
+            this.buckets = newBuckets(0);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newBuckets(int length) {
+            return (Node<V>[]) new Node<?>[length];
+        }
+
+       /**
+        * public Node<V> insert(long key, V value)
+        *
+        * Creates a node which contains the given key and value, and inserts it into the heap.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the newly created node.
+        */
+        public Node<V> insert(long key, V value) {
+            return insert(key, value, 0);
+        }
+
+       /**
+        * public Node<V> insert(long key, int intValue)
+        *
+        * Creates a node which contains the given key and int value (and a null object value), and inserts it.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the newly created node.
+        */
+        public Node<V> insert(long key, int intValue) {
+            return insert(key, null, intValue);
+        }
+
+       /**
+        * public Node<V> insert(long key, V value, int intValue)
+        *
+        * Creates a node which contains the given key and both payloads, and inserts it into the heap.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the newly created node.
+        */
+        public Node<V> insert(long key, V value, int intValue) {
+            Node<V> node = new Node<>(key, value, intValue);
+            addRoot(node);
+            this.size++;
+            return node;
+        }
+
+        private void addRoot(Node<V> node) {
+            node.inHeap = true;
+            if (this.first != null) {
+                insertBefore(this.first, node, node);
+            }
+            this.first = node;
+            this.numTrees++;
+            if (this.min == null || node.key < this.min.key) {
+                this.min = node;
+            }
+        }
+
+       /**
+        * private static void insertBefore(Node<V> node, Node<V> first, Node<V> last)
+        *
+        * Add the chain first..last as left siblings of node.
+        *
+        * Complexity: O(1)
+        */
+        private static <V> void insertBefore(Node<V> node, Node<V> first, Node<V> last) {
+            Node<V> temp = node.prev;
+            last.next = node;
+            node.prev = last;
+            temp.next = first;
+            first.prev = temp;
+        }
+
+       /**
+        * public Node<V> findMin()
+        *
+        * Returns the node whose key is minimal, or null if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public Node<V> findMin() {
+            return this.min;
+        }
+
+       /**
+        * public Node<V> getFirst()
+        *
+        * Returns the first root, or null if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public Node<V> getFirst() {
+            return this.first;
+        }
+
+       /**
+        * public Node<V> deleteMin()
+        *
+        * Deletes the node containing the minimum key: its children become roots and the trees are consolidated.
+        *
+        * Complexity: O(log(n)) amortized
+        *
+        * Returns the deleted node, or null if the heap is empty.
+        */
+        public Node<V> deleteMin() {
+            Node<V> z = this.min;
+            if (z == null) {
+                return null;
+            }
+            removeRoot(z);
+            if (this.first == null) {
+                emptied();
+            }
+            else {
+                consolidate();
+            }
+            return z;
+        }
+
+       /**
+        * private void removeRoot(Node<V> z)
+        *
+        * Take the root z out of the root list; its children become roots in its place. min is not updated.
+        *
+        * Complexity: O(rank(z))
+        */
+        private void removeRoot(Node<V> z) {
+            Node<V> c = z.child;
+            if (c != null) {
+                Node<V> iter = c;
+                do {
+                    iter.parent = null;
+                    if (iter.mark) {
+                        iter.mark = false;
+                        this.countMarkNodes--;
+                    }
+                    this.numTrees++;
+                    iter = iter.next;
+                } while (iter != c);
+                insertBefore(z, c, c.prev);
+            }
+            Node<V> n = z.next;
+            Node<V> p = z.prev;
+            p.next = n;
+            n.prev = p;
+            if (this.first == z) {
+                this.first = c != null ? c : (n != z ? n : null);
+            }
+            this.numTrees--;
+            this.size--;
+            if (this.tallest == z) {
+                this.tallest = null;
+            }
+            z.child = null;
+            z.rank = 0;
+            z.next = z;
+            z.prev = z;
+            z.inHeap = false;
+        }
+
+       /**
+        * private Node<V> link(Node<V> a, Node<V> b)
+        *
+        * Hang the root with the bigger key as the left-most child of the other root.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the root with the smaller key.
+        */
+        private Node<V> link(Node<V> a, Node<V> b) {
+            if (b.key < a.key) {
+                Node<V> temp = a;
+                a = b;
+                b = temp;
+            }
+            Node<V> c = a.child;
+            a.child = b;
+            b.parent = a;
+            if (c == null) {
+                b.next = b;
+                b.prev = b;
+            }
+            else {
+                insertBefore(c, b, b);
+            }
+            a.rank++;
+            this.countLinks++;
+            return a;
+        }
+
+       /**
+        * private void consolidate()
+        *
+        * Link trees of equal rank until every rank appears at most once, using the buckets method.
+        *
+        * Complexity: O(k + log(n)), k - number of trees in heap
+        */
+        private void consolidate() {
+            int bound;
+            if (!this.countsStale) {
+                // rank <= log_phi(n) < 2 * bitLength(n)
+                bound = 2 * (64 - Long.numberOfLeadingZeros(this.size)) + 1;
+            }
+            else {
+                // linking t trees of rank at most r gives rank at most r + log2(t): the sum of 2^rank is kept
+                int r = 0;
+                Node<V> iter = this.first;
+                do {
+                    r = Math.max(r, iter.rank);
+                    iter = iter.next;
+                } while (iter != this.first);
+                bound = r + 64 - Long.numberOfLeadingZeros(this.numTrees) + 1;
+            }
+            if (this.buckets.length < bound) {
+                this.buckets = newBuckets(bound);
+            }
+            Node<V> curr = this.first;
+            int maxRank = -1;
+            long count = this.numTrees;
+            for (long i = 0; i < count; i++) {
+                Node<V> t = curr;
+                curr = curr.next;
+                t.next = t;
+                t.prev = t;
+                int r = t.rank;
+                while (this.buckets[r] != null) {
+                    t = link(this.buckets[r], t);
+                    this.numTrees--;
+                    this.buckets[r] = null;
+                    r++;
+                }
+                this.buckets[r] = t;
+                if (r > maxRank) {
+                    maxRank = r;
+                }
+            }
+            this.min = null;
+            this.first = null;
+            this.tallest = null;
+            for (int r = 0; r <= maxRank; r++) {
+                Node<V> t = this.buckets[r];
+                if (t != null) {
+                    this.buckets[r] = null;
+                    if (this.first == null) {
+                        this.first = t;
+                    }
+                    else {
+                        insertBefore(this.first, t, t);
+                    }
+                    if (this.min == null || t.key < this.min.key) {
+                        this.min = t;
+                    }
+                    this.tallest = t;
+                }
+            }
+        }
+
+       /**
+        * public void decreaseKey(Node<V> x, long newKey)
+        *
+        * Sets the key of x to newKey, which must not be greater than its current key, applying cascading cuts if needed.
+        *
+        * Complexity: O(1) amortized
+        */
+        public void decreaseKey(Node<V> x, long newKey) {
+            checkInHeap(x);
+            if (newKey > x.key) {
+                throw new IllegalArgumentException("new key " + newKey + " is greater than current key " + x.key);
+            }
+            x.key = newKey;
+            Node<V> p = x.parent;
+            if (p != null && newKey < p.key) {
+                cascadingCut(x, p);
+            }
+            if (newKey < this.min.key) {
+                this.min = x;
+            }
+        }
+
+       /**
+        * public void delete(Node<V> x)
+        *
+        * Deletes x from the heap. x is cut to the root list and removed there, its children becoming roots.
+        * Only if x was the minimum are the trees consolidated to find the new one; otherwise the consolidation is
+        * left to the next deleteMin, so deleting many nodes (cancelled timers) costs O(1 + rank) each.
+        *
+        * Complexity: O(1) amortized plus O(rank(x)) for the children, O(log(n)) amortized if x is the minimum
+        */
+        public void delete(Node<V> x) {
+            checkInHeap(x);
+            Node<V> p = x.parent;
+            if (p != null) {
+                cascadingCut(x, p);
+            }
+            if (x == this.min) {
+                deleteMin();
+            }
+            else {
+                removeRoot(x);
+            }
+        }
+
+        private static void checkInHeap(Node<?> x) {
+            if (!x.inHeap) {
+                throw new IllegalStateException("node is not in a heap");
+            }
+        }
+
+       /**
+        * private void cascadingCut(Node<V> x, Node<V> xParent)
+        *
+        * Cut x from xParent and keep cutting up the tree as long as the parent was already marked.
+        *
+        * Complexity: O(1) amortized
+        */
+        private void cascadingCut(Node<V> x, Node<V> xParent) {
+            while (true) {
+                cut(x, xParent);
+                this.countCuts++;
+                Node<V> grandParent = xParent.parent;
+                if (grandParent == null) {
+                    return;
+                }
+                if (!xParent.mark) {
+                    xParent.mark = true;
+                    this.countMarkNodes++;
+                    return;
+                }
+                x = xParent;
+                xParent = grandParent;
+            }
+        }
+
+       /**
+        * private void cut(Node<V> x, Node<V> xParent)
+        *
+        * Cuts node x from its parent xParent and adds it as a new tree.
+        *
+        * Complexity: O(1)
+        */
+        private void cut(Node<V> x, Node<V> xParent) {
+            xParent.rank--;
+            if (x.next == x) {
+                xParent.child = null;
+            }
+            else {
+                x.prev.next = x.next;
+                x.next.prev = x.prev;
+                if (xParent.child == x) {
+                    xParent.child = x.next;
+                }
+            }
+            if (x.mark) {
+                x.mark = false;
+                this.countMarkNodes--;
+            }
+            x.parent = null;
+            x.next = x;
+            x.prev = x;
+            addRoot(x);
+        }
+
+       /**
+        * public int pollMin(int k, Consumer<? super Node<V>> sink)
+        *
+        * Deletes the k nodes with the smallest keys and passes them to sink in ascending order, as
+        * FibonacciHeap.pollMin does: the nodes are found with a frontier heap seeded with the roots, each one is
+        * removed with removeRoot as it is polled, so its children become roots and candidates, and the trees are
+        * consolidated once at the end instead of once per node. If the heap holds fewer than k nodes, all of them
+        * are taken. sink is called after the heap is consistent again.
+        *
+        * Complexity: O(f*log(f)) plus the consolidation, f = t + k*deg nodes pass through the frontier,
+        * t - number of trees in heap
+        *
+        * Returns the number of nodes passed to sink.
+        */
+        public int pollMin(int k, java.util.function.Consumer<? super Node<V>> sink) {
+            int count = (int) Math.min(Math.max(k, 0), size());
+            if (count == 0) {
+                return 0;
+            }
+            java.util.PriorityQueue<Node<V>> front = new java.util.PriorityQueue<>((a, b) -> Long.compare(a.key, b.key));
+            Node<V> iter = this.first;
+            do {
+                front.add(iter);
+                iter = iter.next;
+            } while (iter != this.first);
+            java.util.ArrayList<Node<V>> taken = new java.util.ArrayList<>(count);
+            while (taken.size() < count) {
+                // a node is taken after its parent, so it is a root by now; its children become candidates
+                Node<V> node = front.poll();
+                Node<V> child = node.child;
+                if (child != null) {
+                    iter = child;
+                    do {
+                        front.add(iter);
+                        iter = iter.next;
+                    } while (iter != child);
+                }
+                removeRoot(node);
+                taken.add(node);
+            }
+            if (this.first == null) {
+                emptied();
+            }
+            else {
+                consolidate();
+            }
+            for (Node<V> node : taken) {
+                sink.accept(node);
+            }
+            return count;
+        }
+
+       /**
+        * public int drainUpTo(long threshold, Consumer<? super Node<V>> sink)
+        *
+        * Deletes every node whose key is at most threshold and passes it to sink, in no particular order, as
+        * FibonacciHeap.drainUpTo does: only subtrees whose root matches are walked, the matches are removed parent
+        * first, and the trees are consolidated once. sink is called after the heap is consistent again.
+        *
+        * Complexity: O(t + m*deg) plus the consolidation, t - number of trees in heap, m - number of matching nodes
+        *
+        * Returns the number of nodes passed to sink.
+        */
+        public int drainUpTo(long threshold, java.util.function.Consumer<? super Node<V>> sink) {
+            if (this.min == null || this.min.key > threshold) {
+                return 0;
+            }
+            java.util.ArrayList<Node<V>> taken = new java.util.ArrayList<>();
+            Node<V> iter = this.first;
+            do {
+                if (iter.key <= threshold) {
+                    taken.add(iter);
+                }
+                iter = iter.next;
+            } while (iter != this.first);
+            for (int i = 0; i < taken.size(); i++) { // taken doubles as the queue of the walk, so parents precede children
+                Node<V> child = taken.get(i).child;
+                if (child == null) {
+                    continue;
+                }
+                iter = child;
+                do {
+                    if (iter.key <= threshold) {
+                        taken.add(iter);
+                    }
+                    iter = iter.next;
+                } while (iter != child);
+            }
+            for (Node<V> node : taken) {
+                removeRoot(node);
+            }
+            if (this.first == null) {
+                emptied();
+            }
+            else {
+                consolidate();
+            }
+            for (Node<V> node : taken) {
+                sink.accept(node);
+            }
+            return taken.size();
+        }
+
+       /**
+        * public LongFibonacciHeap<V> splitOffTree()
+        *
+        * Removes one whole tree from the heap and returns it as a new heap; the reverse of meld.
+        * The tree is a root of the highest rank at the last consolidation, so one of the biggest trees, when it is
+        * still a root and not the minimum; otherwise a root other than the minimum when there is one, so findMin of
+        * this heap does not change. Only the root is unlinked: the nodes of the tree are not visited, so the size and
+        * the number of marked nodes of both heaps become unknown. They are recounted by the next size() or
+        * getCountMarkNodes() call, in O(n), or reset when the heap becomes empty; until then consolidate bounds
+        * the ranks by scanning the roots instead of using the size.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the new heap, or null if this heap is empty.
+        */
+        public LongFibonacciHeap<V> splitOffTree() {
+            if (this.first == null) {
+                return null;
+            }
+            Node<V> root = this.tallest;
+            if (root == null || root == this.min) {
+                root = this.first != this.min ? this.first : this.first.next;
+            }
+            this.tallest = null;
+            if (root.next == root) { // the only tree
+                this.first = null;
+                this.min = null;
+            }
+            else {
+                root.prev.next = root.next;
+                root.next.prev = root.prev;
+                if (this.first == root) {
+                    this.first = root.next;
+                }
+                root.next = root;
+                root.prev = root;
+            }
+            LongFibonacciHeap<V> res = new LongFibonacciHeap<>();
+            res.first = root;
+            res.min = root;
+            res.numTrees = 1;
+            res.countsStale = true;
+            this.numTrees--;
+            if (this.first == null) {
+                emptied();
+            }
+            else {
+                this.countsStale = true;
+            }
+            return res;
+        }
+
+       /**
+        * private void emptied()
+        *
+        * Reset the root pointers and counters once the last tree has left the heap; the counts are exact again.
+        *
+        * Complexity: O(1)
+        */
+        private void emptied() {
+            this.min = null;
+            this.first = null;
+            this.tallest = null;
+            this.size = 0;
+            this.countMarkNodes = 0;
+            this.countsStale = false;
+        }
+
+       /**
+        * private void recount()
+        *
+        * Count the nodes and the marked nodes by walking every tree, after splitOffTree made the counts unknown.
+        *
+        * Complexity: O(n)
+        */
+        private void recount() {
+            long count = 0;
+            long marked = 0;
+            java.util.ArrayDeque<Node<V>> rings = new java.util.ArrayDeque<>();
+            if (this.first != null) {
+                rings.push(this.first);
+            }
+            while (!rings.isEmpty()) { // every entry is the first of a sibling ring
+                Node<V> ring = rings.pop();
+                Node<V> iter = ring;
+                do {
+                    count++;
+                    if (iter.mark) {
+                        marked++;
+                    }
+                    if (iter.child != null) {
+                        rings.push(iter.child);
+                    }
+                    iter = iter.next;
+                } while (iter != ring);
+            }
+            this.size = count;
+            this.countMarkNodes = marked;
+            this.countsStale = false;
+        }
+
+       /**
+        * public void meld(LongFibonacciHeap<V> heap2)
+        *
+        * Melds heap2 into the current heap by splicing the root lists; heap2 is left empty.
+        *
+        * Complexity: O(1)
+        */
+        public void meld(LongFibonacciHeap<V> heap2) {
+            if (heap2 == this || heap2.first == null) {
+                return;
+            }
+            if (this.first == null) {
+                this.first = heap2.first;
+                this.min = heap2.min;
+            }
+            else {
+                insertBefore(this.first, heap2.first, heap2.first.prev);
+                if (heap2.min.key < this.min.key) {
+                    this.min = heap2.min;
+                }
+            }
+            if (this.first == heap2.first) { // this heap was empty
+                this.size = heap2.size;
+                this.countMarkNodes = heap2.countMarkNodes;
+                this.countsStale = heap2.countsStale;
+                this.tallest = heap2.tallest;
+            }
+            else {
+                this.size += heap2.size;
+                this.countMarkNodes += heap2.countMarkNodes;
+                this.countsStale |= heap2.countsStale;
+            }
+            this.numTrees += heap2.numTrees;
+            this.countLinks += heap2.countLinks;
+            this.countCuts += heap2.countCuts;
+            heap2.numTrees = 0;
+            heap2.emptied();
+        }
+
+       /**
+        * public long size()
+        *
+        * Returns the number of elements in the heap.
+        *
+        * Complexity: O(1), O(n) for the first call after splitOffTree
+        */
+        public long size() {
+            if (this.countsStale) {
+                recount();
+            }
+            return this.size;
+        }
+
+       /**
+        * public boolean isEmpty()
+        *
+        * Returns true if and only if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public boolean isEmpty() {
+            return this.first == null;
+        }
+
+       /**
+        * public long getNumTrees()
+        *
+        * Returns the number of trees in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public long getNumTrees() {
+            return this.numTrees;
+        }
+
+       /**
+        * public long getCountMarkNodes()
+        *
+        * Returns the number of marked nodes in the heap.
+        *
+        * Complexity: O(1), O(n) for the first call after splitOffTree
+        */
+        public long getCountMarkNodes() {
+            if (this.countsStale) {
+                recount();
+            }
+            return this.countMarkNodes;
+        }
+
+       /**
+        * public int[] countersRep()
+        *
+        * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+        *
+        * Complexity: O(k), k - number of trees in heap
+        */
+        public int[] countersRep() {
+            if (this.first == null) {
+                return new int[0];
+            }
+            int maxRank = 0;
+            Node<V> iter = this.first;
+            do {
+                maxRank = Math.max(maxRank, iter.rank);
+                iter = iter.next;
+            } while (iter != this.first);
+            int[] res = new int[maxRank + 1];
+            do {
+                res[iter.rank]++;
+                iter = iter.next;
+            } while (iter != this.first);
+            return res;
+        }
+
+       /**
+        * public long totalLinks()
+        *
+        * Returns the number of link operations made by this heap.
+        *
+        * Complexity: O(1)
+        */
+        public long totalLinks() {
+            return this.countLinks;
+        }
+
+       /**
+        * public long totalCuts()
+        *
+        * Returns the number of cut operations made by this heap.
+        *
+        * Complexity: O(1)
+        */
+        public long totalCuts() {
+            return this.countCuts;
+        }
+
+       /**
+        * public static final class Node<V>
+        *
+        * A node of a LongFibonacciHeap: a long key, an object value and an int value.
+        */
+        public static final class Node<V> {
+            private long key;
+            private final V value;
+            private final int intValue;
+            private int rank;
+            private boolean mark;
+            private boolean inHeap;
+            private Node<V> parent;
+            private Node<V> child;
+            private Node<V> next;
+            private Node<V> prev;
+
+            private Node(long key, V value, int intValue) {
+                this.key = key;
+                this.value = value;
+                this.intValue = intValue;
+                this.next = this;
+                this.prev = this;
+            }
+
+            public long getKey() {
+                return this.key;
+            }
+
+            public V getValue() {
+                return this.value;
+            }
+
+            public int getIntValue() {
+                return this.intValue;
+            }
+
+            public int getRank() {
+                return this.rank;
+            }
+
+            public boolean getMarked() {
+                return this.mark;
+            }
+
+           /**
+            * public boolean isInHeap()
+            *
+            * Returns true if and only if the node was inserted and not removed since.
+            */
+            public boolean isInHeap() {
+                return this.inHeap;
+            }
+
+            public Node<V> getParent() {
+                return this.parent;
+            }
+
+            public Node<V> getChild() {
+                return this.child;
+            }
+
+            public Node<V> getNext() {
+                return this.next;
+            }
+
+            public Node<V> getPrev() {
+                return this.prev;
+            }
+        }
+    }
+
+   /**
+    * public static class DoubleFibonacciHeap<V>
+    *
+    * The double-keyed twin of LongFibonacciHeap, for real-valued costs (distances, scores), with the same operations
+    * (drainUpTo and splitOffTree included) and long sizes and counters.
+    * NaN keys are rejected with IllegalArgumentException, since NaN is unordered and would break the heap order;
+    * -0.0 and 0.0 are equal keys.
+    * The two classes are kept as parallel copies rather than one generic heap, so that keys stay primitive fields
+    * compared with primitive comparisons, without boxing or a Comparator call per link; a change to one must be
+    * made to the other, and Conformance runs the same checks on both.
+    */
+    public static class DoubleFibonacciHeap<V> {
+
+        private Node<V> min;
+        private Node<V> first;
+
+        private long numTrees;
+        private long size;
+        private long countMarkNodes;
+        private boolean countsStale; // size and countMarkNodes are recounted on demand after splitOffTree
+        private Node<V> tallest; // a root of the highest rank at the last consolidation, for splitOffTree
+
+        private long countLinks;
+        private long countCuts;
+
+        private Node<V>[] buckets; // consolidation buckets, grown only when the rank bound grows
+
+       /**
+        * Constructor of DoubleFibonacciHeap!
+        *
+        * public DoubleFibonacciHeap()
+        *
+        * Initializing an empty heap.
+        *
+        * Complexity: O(1)
+        */
+        public DoubleFibonacciHeap() {
+            this.buckets = newBuckets(0);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newBuckets(int length) {
+            return (Node<V>[]) new Node<?>[length];
+        }
+
+       /**
+        * public Node<V> insert(double key, V value)
+        *
+        * Creates a node which contains the given key and value, and inserts it into the heap.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the newly created node.
+        */
+        public Node<V> insert(double key, V value) {
+            return insert(key, value, 0);
+        }
+
+       /**
+        * public Node<V> insert(double key, int intValue)
+        *
+        * Creates a node which contains the given key and int value (and a null object value), and inserts it.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the newly created node.
+        */
+        public Node<V> insert(double key, int intValue) {
+            return insert(key, null, intValue);
+        }
+
+       /**
+        * public Node<V> insert(double key, V value, int intValue)
+        *
+        * Creates a node which contains the given key and both payloads, and inserts it into the heap.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the newly created node.
+        */
+        public Node<V> insert(double key, V value, int intValue) {
+            checkKey(key);
+            Node<V> node = new Node<>(key, value, intValue);
+            addRoot(node);
+            this.size++;
+            return node;
+        }
+
+        private void addRoot(Node<V> node) {
+            node.inHeap = true;
+            if (this.first != null) {
+                insertBefore(this.first, node, node);
+            }
+            this.first = node;
+            this.numTrees++;
+            if (this.min == null || node.key < this.min.key) {
+                this.min = node;
+            }
+        }
+
+       /**
+        * private static void insertBefore(Node<V> node, Node<V> first, Node<V> last)
+        *
+        * Add the chain first..last as left siblings of node.
+        *
+        * Complexity: O(1)
+        */
+        private static <V> void insertBefore(Node<V> node, Node<V> first, Node<V> last) {
+            Node<V> temp = node.prev;
+            last.next = node;
+            node.prev = last;
+            temp.next = first;
+            first.prev = temp;
+        }
+
+       /**
+        * public Node<V> findMin()
+        *
+        * Returns the node whose key is minimal, or null if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public Node<V> findMin() {
+            return this.min;
+        }
+
+       /**
+        * public Node<V> getFirst()
+        *
+        * Returns the first root, or null if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public Node<V> getFirst() {
+            return this.first;
+        }
+
+       /**
+        * public Node<V> deleteMin()
+        *
+        * Deletes the node containing the minimum key: its children become roots and the trees are consolidated.
+        *
+        * Complexity: O(log(n)) amortized
+        *
+        * Returns the deleted node, or null if the heap is empty.
+        */
+        public Node<V> deleteMin() {
+            Node<V> z = this.min;
+            if (z == null) {
+                return null;
+            }
+            removeRoot(z);
+            if (this.first == null) {
+                emptied();
+            }
+            else {
+                consolidate();
+            }
+            return z;
+        }
+
+       /**
+        * private void removeRoot(Node<V> z)
+        *
+        * Take the root z out of the root list; its children become roots in its place. min is not updated.
+        *
+        * Complexity: O(rank(z))
+        */
+        private void removeRoot(Node<V> z) {
+            Node<V> c = z.child;
+            if (c != null) {
+                Node<V> iter = c;
+                do {
+                    iter.parent = null;
+                    if (iter.mark) {
+                        iter.mark = false;
+                        this.countMarkNodes--;
+                    }
+                    this.numTrees++;
+                    iter = iter.next;
+                } while (iter != c);
+                insertBefore(z, c, c.prev);
+            }
+            Node<V> n = z.next;
+            Node<V> p = z.prev;
+            p.next = n;
+            n.prev = p;
+            if (this.first == z) {
+                this.first = c != null ? c : (n != z ? n : null);
+            }
+            this.numTrees--;
+            this.size--;
+            if (this.tallest == z) {
+                this.tallest = null;
+            }
+            z.child = null;
+            z.rank = 0;
+            z.next = z;
+            z.prev = z;
+            z.inHeap = false;
+        }
+
+       /**
+        * private Node<V> link(Node<V> a, Node<V> b)
+        *
+        * Hang the root with the bigger key as the left-most child of the other root.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the root with the smaller key.
+        */
+        private Node<V> link(Node<V> a, Node<V> b) {
+            if (b.key < a.key) {
+                Node<V> temp = a;
+                a = b;
+                b = temp;
+            }
+            Node<V> c = a.child;
+            a.child = b;
+            b.parent = a;
+            if (c == null) {
+                b.next = b;
+                b.prev = b;
+            }
+            else {
+                insertBefore(c, b, b);
+            }
+            a.rank++;
+            this.countLinks++;
+            return a;
+        }
+
+       /**
+        * private void consolidate()
+        *
+        * Link trees of equal rank until every rank appears at most once, using the buckets method.
+        *
+        * Complexity: O(k + log(n)), k - number of trees in heap
+        */
+        private void consolidate() {
+            int bound;
+            if (!this.countsStale) {
+                // rank <= log_phi(n) < 2 * bitLength(n)
+                bound = 2 * (64 - Long.numberOfLeadingZeros(this.size)) + 1;
+            }
+            else {
+                // linking t trees of rank at most r gives rank at most r + log2(t): the sum of 2^rank is kept
+                int r = 0;
+                Node<V> iter = this.first;
+                do {
+                    r = Math.max(r, iter.rank);
+                    iter = iter.next;
+                } while (iter != this.first);
+                bound = r + 64 - Long.numberOfLeadingZeros(this.numTrees) + 1;
+            }
+            if (this.buckets.length < bound) {
+                this.buckets = newBuckets(bound);
+            }
+            Node<V> curr = this.first;
+            int maxRank = -1;
+            long count = this.numTrees;
+            for (long i = 0; i < count; i++) {
+                Node<V> t = curr;
+                curr = curr.next;
+                t.next = t;
+                t.prev = t;
+                int r = t.rank;
+                while (this.buckets[r] != null) {
+                    t = link(this.buckets[r], t);
+                    this.numTrees--;
+                    this.buckets[r] = null;
+                    r++;
+                }
+                this.buckets[r] = t;
+                if (r > maxRank) {
+                    maxRank = r;
+                }
+            }
+            this.min = null;
+            this.first = null;
+            this.tallest = null;
+            for (int r = 0; r <= maxRank; r++) {
+                Node<V> t = this.buckets[r];
+                if (t != null) {
+                    this.buckets[r] = null;
+                    if (this.first == null) {
+                        this.first = t;
+                    }
+                    else {
+                        insertBefore(this.first, t, t);
+                    }
+                    if (this.min == null || t.key < this.min.key) {
+                        this.min = t;
+                    }
+                    this.tallest = t;
+                }
+            }
+        }
+
+       /**
+        * public void decreaseKey(Node<V> x, double newKey)
+        *
+        * Sets the key of x to newKey, which must not be greater than its current key, applying cascading cuts if needed.
+        *
+        * Complexity: O(1) amortized
+        */
+        public void decreaseKey(Node<V> x, double newKey) {
+            checkInHeap(x);
+            checkKey(newKey);
+            if (newKey > x.key) {
+                throw new IllegalArgumentException("new key " + newKey + " is greater than current key " + x.key);
+            }
+            x.key = newKey;
+            Node<V> p = x.parent;
+            if (p != null && newKey < p.key) {
+                cascadingCut(x, p);
+            }
+            if (newKey < this.min.key) {
+                this.min = x;
+            }
+        }
+
+       /**
+        * public void delete(Node<V> x)
+        *
+        * Deletes x from the heap. x is cut to the root list and removed there, its children becoming roots.
+        * Only if x was the minimum are the trees consolidated to find the new one; otherwise the consolidation is
+        * left to the next deleteMin, so deleting many nodes (cancelled timers) costs O(1 + rank) each.
+        *
+        * Complexity: O(1) amortized plus O(rank(x)) for the children, O(log(n)) amortized if x is the minimum
+        */
+        public void delete(Node<V> x) {
+            checkInHeap(x);
+            Node<V> p = x.parent;
+            if (p != null) {
+                cascadingCut(x, p);
+            }
+            if (x == this.min) {
+                deleteMin();
+            }
+            else {
+                removeRoot(x);
+            }
+        }
+
+        private static void checkKey(double key) {
+            if (Double.isNaN(key)) {
+                throw new IllegalArgumentException("key is NaN");
+            }
+        }
+
+        private static void checkInHeap(Node<?> x) {
+            if (!x.inHeap) {
+                throw new IllegalStateException("node is not in a heap");
+            }
+        }
+
+       /**
+        * private void cascadingCut(Node<V> x, Node<V> xParent)
+        *
+        * Cut x from xParent and keep cutting up the tree as long as the parent was already marked.
+        *
+        * Complexity: O(1) amortized
+        */
+        private void cascadingCut(Node<V> x, Node<V> xParent) {
+            while (true) {
+                cut(x, xParent);
+                this.countCuts++;
+                Node<V> grandParent = xParent.parent;
+                if (grandParent == null) {
+                    return;
+                }
+                if (!xParent.mark) {
+                    xParent.mark = true;
+                    this.countMarkNodes++;
+                    return;
+                }
+                x = xParent;
+                xParent = grandParent;
+            }
+        }
+
+       /**
+        * private void cut(Node<V> x, Node<V> xParent)
+        *
+        * Cuts node x from its parent xParent and adds it as a new tree.
+        *
+        * Complexity: O(1)
+        */
+        private void cut(Node<V> x, Node<V> xParent) {
+            xParent.rank--;
+            if (x.next == x) {
+                xParent.child = null;
+            }
+            else {
+                x.prev.next = x.next;
+                x.next.prev = x.prev;
+                if (xParent.child == x) {
+                    xParent.child = x.next;
+                }
+            }
+            if (x.mark) {
+                x.mark = false;
+                this.countMarkNodes--;
+            }
+            x.parent = null;
+            x.next = x;
+            x.prev = x;
+            addRoot(x);
+        }
+
+       /**
+        * public int pollMin(int k, Consumer<? super Node<V>> sink)
+        *
+        * Deletes the k nodes with the smallest keys and passes them to sink in ascending order, as
+        * FibonacciHeap.pollMin does: the nodes are found with a frontier heap seeded with the roots, each one is
+        * removed with removeRoot as it is polled, so its children become roots and candidates, and the trees are
+        * consolidated once at the end instead of once per node. If the heap holds fewer than k nodes, all of them
+        * are taken. sink is called after the heap is consistent again.
+        *
+        * Complexity: O(f*log(f)) plus the consolidation, f = t + k*deg nodes pass through the frontier,
+        * t - number of trees in heap
+        *
+        * Returns the number of nodes passed to sink.
+        */
+        public int pollMin(int k, java.util.function.Consumer<? super Node<V>> sink) {
+            int count = (int) Math.min(Math.max(k, 0), size());
+            if (count == 0) {
+                return 0;
+            }
+            java.util.PriorityQueue<Node<V>> front = new java.util.PriorityQueue<>((a, b) -> Double.compare(a.key, b.key));
+            Node<V> iter = this.first;
+            do {
+                front.add(iter);
+                iter = iter.next;
+            } while (iter != this.first);
+            java.util.ArrayList<Node<V>> taken = new java.util.ArrayList<>(count);
+            while (taken.size() < count) {
+                // a node is taken after its parent, so it is a root by now; its children become candidates
+                Node<V> node = front.poll();
+                Node<V> child = node.child;
+                if (child != null) {
+                    iter = child;
+                    do {
+                        front.add(iter);
+                        iter = iter.next;
+                    } while (iter != child);
+                }
+                removeRoot(node);
+                taken.add(node);
+            }
+            if (this.first == null) {
+                emptied();
+            }
+            else {
+                consolidate();
+            }
+            for (Node<V> node : taken) {
+                sink.accept(node);
+            }
+            return count;
+        }
+
+       /**
+        * public int drainUpTo(double threshold, Consumer<? super Node<V>> sink)
+        *
+        * Deletes every node whose key is at most threshold and passes it to sink, in no particular order, as
+        * FibonacciHeap.drainUpTo does: only subtrees whose root matches are walked, the matches are removed parent
+        * first, and the trees are consolidated once. sink is called after the heap is consistent again.
+        * A NaN threshold is rejected with IllegalArgumentException.
+        *
+        * Complexity: O(t + m*deg) plus the consolidation, t - number of trees in heap, m - number of matching nodes
+        *
+        * Returns the number of nodes passed to sink.
+        */
+        public int drainUpTo(double threshold, java.util.function.Consumer<? super Node<V>> sink) {
+            checkKey(threshold);
+            if (this.min == null || this.min.key > threshold) {
+                return 0;
+            }
+            java.util.ArrayList<Node<V>> taken = new java.util.ArrayList<>();
+            Node<V> iter = this.first;
+            do {
+                if (iter.key <= threshold) {
+                    taken.add(iter);
+                }
+                iter = iter.next;
+            } while (iter != this.first);
+            for (int i = 0; i < taken.size(); i++) { // taken doubles as the queue of the walk, so parents precede children
+                Node<V> child = taken.get(i).child;
+                if (child == null) {
+                    continue;
+                }
+                iter = child;
+                do {
+                    if (iter.key <= threshold) {
+                        taken.add(iter);
+                    }
+                    iter = iter.next;
+                } while (iter != child);
+            }
+            for (Node<V> node : taken) {
+                removeRoot(node);
+            }
+            if (this.first == null) {
+                emptied();
+            }
+            else {
+                consolidate();
+            }
+            for (Node<V> node : taken) {
+                sink.accept(node);
+            }
+            return taken.size();
+        }
+
+       /**
+        * public DoubleFibonacciHeap<V> splitOffTree()
+        *
+        * Removes one whole tree from the heap and returns it as a new heap; the reverse of meld.
+        * The tree is a root of the highest rank at the last consolidation, so one of the biggest trees, when it is
+        * still a root and not the minimum; otherwise a root other than the minimum when there is one, so findMin of
+        * this heap does not change. Only the root is unlinked: the nodes of the tree are not visited, so the size and
+        * the number of marked nodes of both heaps become unknown. They are recounted by the next size() or
+        * getCountMarkNodes() call, in O(n), or reset when the heap becomes empty; until then consolidate bounds
+        * the ranks by scanning the roots instead of using the size.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the new heap, or null if this heap is empty.
+        */
+        public DoubleFibonacciHeap<V> splitOffTree() {
+            if (this.first == null) {
+                return null;
+            }
+            Node<V> root = this.tallest;
+            if (root == null || root == this.min) {
+                root = this.first != this.min ? this.first : this.first.next;
+            }
+            this.tallest = null;
+            if (root.next == root) { // the only tree
+                this.first = null;
+                this.min = null;
+            }
+            else {
+                root.prev.next = root.next;
+                root.next.prev = root.prev;
+                if (this.first == root) {
+                    this.first = root.next;
+                }
+                root.next = root;
+                root.prev = root;
+            }
+            DoubleFibonacciHeap<V> res = new DoubleFibonacciHeap<>();
+            res.first = root;
+            res.min = root;
+            res.numTrees = 1;
+            res.countsStale = true;
+            this.numTrees--;
+            if (this.first == null) {
+                emptied();
+            }
+            else {
+                this.countsStale = true;
+            }
+            return res;
+        }
+
+       /**
+        * private void emptied()
+        *
+        * Reset the root pointers and counters once the last tree has left the heap; the counts are exact again.
+        *
+        * Complexity: O(1)
+        */
+        private void emptied() {
+            this.min = null;
+            this.first = null;
+            this.tallest = null;
+            this.size = 0;
+            this.countMarkNodes = 0;
+            this.countsStale = false;
+        }
+
+       /**
+        * private void recount()
+        *
+        * Count the nodes and the marked nodes by walking every tree, after splitOffTree made the counts unknown.
+        *
+        * Complexity: O(n)
+        */
+        private void recount() {
+            long count = 0;
+            long marked = 0;
+            java.util.ArrayDeque<Node<V>> rings = new java.util.ArrayDeque<>();
+            if (this.first != null) {
+                rings.push(this.first);
+            }
+            while (!rings.isEmpty()) { // every entry is the first of a sibling ring
+                Node<V> ring = rings.pop();
+                Node<V> iter = ring;
+                do {
+                    count++;
+                    if (iter.mark) {
+                        marked++;
+                    }
+                    if (iter.child != null) {
+                        rings.push(iter.child);
+                    }
+                    iter = iter.next;
+                } while (iter != ring);
+            }
+            this.size = count;
+            this.countMarkNodes = marked;
+            this.countsStale = false;
+        }
+
+       /**
+        * public void meld(DoubleFibonacciHeap<V> heap2)
+        *
+        * Melds heap2 into the current heap by splicing the root lists; heap2 is left empty.
+        *
+        * Complexity: O(1)
+        */
+        public void meld(DoubleFibonacciHeap<V> heap2) {
+            if (heap2 == this || heap2.first == null) {
+                return;
+            }
+            if (this.first == null) {
+                this.first = heap2.first;
+                this.min = heap2.min;
+            }
+            else {
+                insertBefore(this.first, heap2.first, heap2.first.prev);
+                if (heap2.min.key < this.min.key) {
+                    this.min = heap2.min;
+                }
+            }
+            if (this.first == heap2.first) { // this heap was empty
+                this.size = heap2.size;
+                this.countMarkNodes = heap2.countMarkNodes;
+                this.countsStale = heap2.countsStale;
+                this.tallest = heap2.tallest;
+            }
+            else {
+                this.size += heap2.size;
+                this.countMarkNodes += heap2.countMarkNodes;
+                this.countsStale |= heap2.countsStale;
+            }
+            this.numTrees += heap2.numTrees;
+            this.countLinks += heap2.countLinks;
+            this.countCuts += heap2.countCuts;
+            heap2.numTrees = 0;
+            heap2.emptied();
+        }
+
+       /**
+        * public long size()
+        *
+        * Returns the number of elements in the heap.
+        *
+        * Complexity: O(1), O(n) for the first call after splitOffTree
+        */
+        public long size() {
+            if (this.countsStale) {
+                recount();
+            }
+            return this.size;
+        }
+
+       /**
+        * public boolean isEmpty()
+        *
+        * Returns true if and only if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public boolean isEmpty() {
+            return this.first == null;
+        }
+
+       /**
+        * public long getNumTrees()
+        *
+        * Returns the number of trees in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public long getNumTrees() {
+            return this.numTrees;
+        }
+
+       /**
+        * public long getCountMarkNodes()
+        *
+        * Returns the number of marked nodes in the heap.
+        *
+        * Complexity: O(1), O(n) for the first call after splitOffTree
+        */
+        public long getCountMarkNodes() {
+            if (this.countsStale) {
+                recount();
+            }
+            return this.countMarkNodes;
+        }
+
+       /**
+        * public int[] countersRep()
+        *
+        * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+        *
+        * Complexity: O(k), k - number of trees in heap
+        */
+        public int[] countersRep() {
+            if (this.first == null) {
+                return new int[0];
+            }
+            int maxRank = 0;
+            Node<V> iter = this.first;
+            do {
+                maxRank = Math.max(maxRank, iter.rank);
+                iter = iter.next;
+            } while (iter != this.first);
+            int[] res = new int[maxRank + 1];
+            do {
+                res[iter.rank]++;
+                iter = iter.next;
+            } while (iter != this.first);
+            return res;
+        }
+
+       /**
+        * public long totalLinks()
+        *
+        * Returns the number of link operations made by this heap.
+        *
+        * Complexity: O(1)
+        */
+        public long totalLinks() {
+            return this.countLinks;
+        }
+
+       /**
+        * public long totalCuts()
+        *
+        * Returns the number of cut operations made by this heap.
+        *
+        * Complexity: O(1)
+        */
+        public long totalCuts() {
+            return this.countCuts;
+        }
+
+       /**
+        * public static final class Node<V>
+        *
+        * A node of a DoubleFibonacciHeap: a double key, an object value and an int value.
+        */
+        public static final class Node<V> {
+            private double key;
+            private final V value;
+            private final int intValue;
+            private int rank;
+            private boolean mark;
+            private boolean inHeap;
+            private Node<V> parent;
+            private Node<V> child;
+            private Node<V> next;
+            private Node<V> prev;
+
+            private Node(double key, V value, int intValue) {
+                this.key = key;
+                this.value = value;
+                this.intValue = intValue;
+                this.next = this;
+                this.prev = this;
+            }
+
+            public double getKey() {
+                return this.key;
+            }
+
+            public V getValue() {
+                return this.value;
+            }
+
+            public int getIntValue() {
+                return this.intValue;
+            }
+
+            public int getRank() {
+                return this.rank;
+            }
+
+            public boolean getMarked() {
+                return this.mark;
+            }
+
+           /**
+            * public boolean isInHeap()
+            *
+            * Returns true if and only if the node was inserted and not removed since.
+            */
+            public boolean isInHeap() {
+                return this.inHeap;
+            }
+
+            public Node<V> getParent() {
+                return this.parent;
+            }
+
+            public Node<V> getChild() {
+                return this.child;
+            }
+
+            public Node<V> getNext() {
+                return this.next;
+            }
+
+            public Node<V> getPrev() {
+                return this.prev;
+            }
+        }
+    }
+
+   /**
+    * public static class ConcurrentMultiQueue
+    *
+    * A relaxed concurrent priority queue of int keys (MultiQueue): c * threads FibonacciHeap shards,
+    * each behind its own lock that is tried first and waited for only when every try failed, so a thread never
+    * spins on busy shards.
+    * insert puts the key into a random shard; deleteMin samples two random shards and takes the minimum of the one
+    * whose minimum is smaller. So deleteMin does not always return the global minimum, but with c * threads shards
+    * the returned key is among the O(c * threads) smallest in expectation, while threads rarely meet on a lock.
+    * The minimum of each shard is cached in a volatile field, so choosing between two shards takes no lock.
+    */
+    public static class ConcurrentMultiQueue {
+
+        public static final long EMPTY = Long.MAX_VALUE; // returned by deleteMin, never a key
+
+        private static final int SAMPLE_ATTEMPTS = 8; // two-choice samples before falling back to a scan
+
+        private final Shard[] shards;
+
+       /**
+        * Constructor of ConcurrentMultiQueue!
+        *
+        * public ConcurrentMultiQueue(int c, int threads)
+        *
+        * Initializing an empty queue of c * threads shards, for about threads concurrent users.
+        *
+        * Complexity: O(c * threads)
+        */
+        public ConcurrentMultiQueue(int c, int threads) {
+            if (c < 1 || threads < 1) {
+                throw new IllegalArgumentException("c and threads must be positive: " + c + ", " + threads);
+            }
+            int count = Math.max(c * threads, 2);
+            this.shards = new Shard[count];
+            for (int i = 0; i < count; i++) {
+                this.shards[i] = new Shard();
+            }
+        }
+
+       /**
+        * public void insert(int key)
+        *
+        * Inserts key into a random shard whose lock is free. After as many busy shards as there are shards,
+        * it waits for the lock of the next random one instead of trying on.
+        *
+        * Complexity: O(1) expected
+        */
+        public void insert(int key) {
+            java.util.concurrent.ThreadLocalRandom rnd = java.util.concurrent.ThreadLocalRandom.current();
+            Shard shard = this.shards[rnd.nextInt(this.shards.length)];
+            for (int attempt = 1; !shard.lock.tryLock(); attempt++) {
+                shard = this.shards[rnd.nextInt(this.shards.length)];
+                if (attempt == this.shards.length) {
+                    shard.lock.lock();
+                    break;
+                }
+            }
+            try {
+                shard.heap.insert(key);
+                shard.publish();
+            }
+            finally {
+                shard.lock.unlock();
+            }
+        }
+
+       /**
+        * public long deleteMin()
+        *
+        * Deletes and returns a key that is small with high probability: of two random shards, the minimum of the one
+        * whose cached minimum is smaller. If the samples keep finding empty or busy shards, all shards are scanned,
+        * first trying their locks and then, while keys are still seen, waiting for them.
+        *
+        * Complexity: O(log(n / shards)) amortized, expected
+        *
+        * Returns the deleted key, or EMPTY if every shard was seen empty.
+        */
+        public long deleteMin() {
+            java.util.concurrent.ThreadLocalRandom rnd = java.util.concurrent.ThreadLocalRandom.current();
+            for (int attempt = 0; attempt < SAMPLE_ATTEMPTS; attempt++) {
+                Shard a = this.shards[rnd.nextInt(this.shards.length)];
+                Shard b = this.shards[rnd.nextInt(this.shards.length)];
+                Shard best = b.min < a.min ? b : a;
+                if (best.min == EMPTY) {
+                    continue;
+                }
+                long key = best.tryDeleteMin();
+                if (key != EMPTY) {
+                    return key;
+                }
+            }
+            boolean wait = false;
+            while (true) { // the queue is (nearly) empty: look at every shard
+                boolean sawKey = false;
+                for (Shard shard : this.shards) {
+                    if (shard.min != EMPTY) {
+                        sawKey = true;
+                        long key = shard.deleteMin(wait);
+                        if (key != EMPTY) {
+                            return key;
+                        }
+                    }
+                }
+                if (!sawKey) {
+                    return EMPTY;
+                }
+                wait = true; // every shard with a key was busy: block on the locks rather than spin
+            }
+        }
+
+       /**
+        * public int size()
+        *
+        * Returns the number of keys in the queue. While other threads insert or delete, this is only a snapshot
+        * of each shard at slightly different times.
+        *
+        * Complexity: O(shards)
+        */
+        public int size() {
+            int res = 0;
+            for (Shard shard : this.shards) {
+                res += shard.size;
+            }
+            return res;
+        }
+
+       /**
+        * public boolean isEmpty()
+        *
+        * Returns true if every shard was seen empty.
+        *
+        * Complexity: O(shards)
+        */
+        public boolean isEmpty() {
+            for (Shard shard : this.shards) {
+                if (shard.min != EMPTY) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+       /**
+        * public int getNumShards()
+        *
+        * Returns the number of shards.
+        *
+        * Complexity: O(1)
+        */
+        public int getNumShards() {
+            return this.shards.length;
+        }
+
+        private static final class Shard {
+            final java.util.concurrent.locks.ReentrantLock lock = new java.util.concurrent.locks.ReentrantLock();
+            final FibonacciHeap heap = new FibonacciHeap();
+            volatile long min = EMPTY; // minimum key of heap, written under lock and read without it
+            volatile int size;
+
+            /** Refresh the cached minimum and size; called with the lock held. */
+            void publish() {
+                HeapNode node = this.heap.findMin();
+                this.min = node == null ? EMPTY : node.getKey();
+                this.size = this.heap.size();
+            }
+
+            /** Delete the minimum if the lock is free and the shard is not empty; otherwise return EMPTY. */
+            long tryDeleteMin() {
+                return deleteMin(false);
+            }
+
+            /** Delete the minimum, waiting for the lock if wait is set; return EMPTY if busy or empty. */
+            long deleteMin(boolean wait) {
+                if (wait) {
+                    this.lock.lock();
+                }
+                else if (!this.lock.tryLock()) {
+                    return EMPTY;
+                }
+                try {
+                    HeapNode node = this.heap.findMin();
+                    if (node == null) {
+                        return EMPTY;
+                    }
+                    int key = node.getKey();
+                    this.heap.deleteMin();
+                    this.publish();
+                    return key;
+                }
+                finally {
+                    this.lock.unlock();
+                }
+            }
+        }
+    }
+
+   /**
+    * public static class FlatCombiningFibonacciHeap
+    *
+    * A thread-safe FibonacciHeap that keeps strict priority order and uses flat combining instead of having every
+    * thread take the lock in turn. A thread writes its request (insert, decreaseKey or deleteMin) to its own slot
+    * and then either becomes the combiner, by getting the lock, or waits for its slot to be served.
+    * The combiner serves every pending slot in one pass: inserts and decreaseKeys first (each O(1)), then all
+    * pending deleteMins at once with pollMin, so one consolidation serves all of them. The heap stays in the cache
+    * of one core, and the lock is handed over once per batch instead of once per operation.
+    * A thread gets a slot on its first operation. The slot of a thread that terminated is handed to the next thread
+    * that needs one, and a slot left idle for IDLE_PASSES batches is given up; its thread takes a slot again on its
+    * next operation. Threads that find no free slot take the lock and apply their operation directly.
+    */
+    public static class FlatCombiningFibonacciHeap {
+
+        public static final long EMPTY = Long.MAX_VALUE; // returned by deleteMin, never a key
+
+        private static final int INSERT = 1;
+        private static final int DECREASE_KEY = 2;
+        private static final int DELETE_MIN = 3;
+        private static final int IDLE_PASSES = 1 << 12; // batches a slot may stay unused before it is given up
+
+        private final FibonacciHeap heap = new FibonacciHeap();
+        private final java.util.concurrent.locks.ReentrantLock lock = new java.util.concurrent.locks.ReentrantLock();
+        private final java.util.concurrent.atomic.AtomicReferenceArray<Request> slots;
+        private final java.util.concurrent.atomic.AtomicInteger highWater = new java.util.concurrent.atomic.AtomicInteger(); // slots[highWater..] were never used
+        private final ThreadLocal<Request> request = ThreadLocal.withInitial(Request::new);
+
+        private int[] polled = new int[16];       // combiner only: keys of the batched deleteMins
+        private Request[] takers = new Request[16]; // combiner only: slots waiting for those keys
+        private volatile int passes;               // batches completed, written by the combiner only
+        private volatile int size;
+
+       /**
+        * Constructor of FlatCombiningFibonacciHeap!
+        *
+        * public FlatCombiningFibonacciHeap(int maxThreads)
+        *
+        * Initializing an empty heap with publication slots for maxThreads threads.
+        *
+        * Complexity: O(maxThreads)
+        */
+        public FlatCombiningFibonacciHeap(int maxThreads) {
+            if (maxThreads < 1) {
+                throw new IllegalArgumentException("maxThreads must be positive: " + maxThreads);
+            }
+            this.slots = new java.util.concurrent.atomic.AtomicReferenceArray<>(maxThreads);
+        }
+
+       /**
+        * public HeapNode insert(int key)
+        *
+        * Inserts key and returns its node, which can be passed to decreaseKey while the key is in the heap.
+        *
+        * Complexity: O(1) for the heap, plus the wait for a combiner
+        */
+        public HeapNode insert(int key) {
+            Request req = this.request.get();
+            req.key = key;
+            this.publish(req, INSERT);
+            HeapNode res = req.node;
+            req.node = null;
+            return res;
+        }
+
+       /**
+        * public void decreaseKey(HeapNode x, int delta)
+        *
+        * Decreases the key of x by a non-negative value delta.
+        * Throws IllegalStateException if x was already deleted, for example by another thread's deleteMin.
+        *
+        * Complexity: O(1) amortized for the heap, plus the wait for a combiner
+        */
+        public void decreaseKey(HeapNode x, int delta) {
+            Request req = this.request.get();
+            req.node = x;
+            req.key = delta;
+            this.publish(req, DECREASE_KEY);
+            req.node = null;
+            RuntimeException error = req.error;
+            if (error != null) {
+                req.error = null;
+                throw error;
+            }
+        }
+
+       /**
+        * public long deleteMin()
+        *
+        * Deletes the minimum key and returns it, or returns EMPTY if the heap is empty.
+        *
+        * Complexity: O(log(n)) amortized for the heap, shared by the deleteMins of one batch
+        */
+        public long deleteMin() {
+            Request req = this.request.get();
+            this.publish(req, DELETE_MIN);
+            return req.result;
+        }
+
+       /**
+        * public int size()
+        *
+        * Returns the number of keys, as of the last completed batch.
+        *
+        * Complexity: O(1)
+        */
+        public int size() {
+            return this.size;
+        }
+
+       /**
+        * public boolean isEmpty()
+        *
+        * Returns true if the heap was empty after the last completed batch.
+        *
+        * Complexity: O(1)
+        */
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+       /**
+        * private void publish(Request req, int op)
+        *
+        * Post req and return once a combiner, possibly this thread, has applied it.
+        */
+        private void publish(Request req, int op) {
+            req.op = op; // volatile write: the request is visible to the combiner with all its arguments
+            if (!req.linked && !this.link(req)) { // no free slot: serve it under the lock
+                this.lock.lock();
+                try {
+                    this.combine(req);
+                }
+                finally {
+                    this.lock.unlock();
+                }
+                return;
+            }
+            while (true) {
+                if (this.lock.tryLock()) {
+                    try {
+                        this.combine(req);
+                    }
+                    finally {
+                        this.lock.unlock();
+                    }
+                }
+                if (req.op == 0) {
+                    return;
+                }
+                Thread.onSpinWait();
+                if (this.lock.isLocked()) {
+                    Thread.yield(); // a combiner is at work, give it the core
+                }
+            }
+        }
+
+       /**
+        * private boolean link(Request req)
+        *
+        * Put req in a free slot or in the slot of a thread that terminated. Returns false if every slot is in use.
+        */
+        private boolean link(Request req) {
+            req.lastPass = this.passes;
+            for (int i = 0; i < this.slots.length(); i++) {
+                Request old = this.slots.get(i);
+                if ((old == null || !old.owner.isAlive()) && this.slots.compareAndSet(i, old, req)) {
+                    this.highWater.accumulateAndGet(i + 1, Math::max);
+                    req.linked = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+       /**
+        * private void combine(Request own)
+        *
+        * Serve every pending request: inserts and decreaseKeys one by one, then the deleteMins as one pollMin.
+        * own, the request of the calling thread, is served even if it is not in a slot. Slots idle for more than
+        * IDLE_PASSES batches are unlinked. Called with the lock held.
+        */
+        private void combine(Request own) {
+            int pass = this.passes + 1;
+            int takerCount = 0;
+            boolean ownSeen = false;
+            int count = this.highWater.get();
+            for (int i = 0; i < count; i++) {
+                Request req = this.slots.get(i);
+                if (req == null) {
+                    continue;
+                }
+                ownSeen |= req == own;
+                int op = req.op;
+                if (op != 0) {
+                    req.lastPass = pass;
+                    takerCount = this.serve(req, op, takerCount);
+                }
+                else if (pass - req.lastPass > IDLE_PASSES && this.slots.compareAndSet(i, req, null)) {
+                    req.linked = false; // after the slot is cleared: its thread links again on its next operation
+                }
+            }
+            int op = own.op;
+            if (!ownSeen && op != 0) { // unlinked while it was being posted, or no slot was free
+                takerCount = this.serve(own, op, takerCount);
+            }
+            if (takerCount > 0) {
+                if (this.polled.length < takerCount) {
+                    this.polled = new int[this.takers.length];
+                }
+                int got = this.heap.pollMin(this.polled, takerCount);
+                for (int i = 0; i < takerCount; i++) {
+                    Request req = this.takers[i];
+                    this.takers[i] = null;
+                    req.result = i < got ? this.polled[i] : EMPTY;
+                    req.op = 0;
+                }
+            }
+            this.passes = pass;
+            this.size = this.heap.size();
+        }
+
+       /**
+        * private int serve(Request req, int op, int takerCount)
+        *
+        * Apply an insert or decreaseKey right away, or queue a deleteMin in takers. Returns the new taker count.
+        */
+        private int serve(Request req, int op, int takerCount) {
+            if (op == INSERT) {
+                req.node = this.heap.insert(req.key);
+                req.op = 0;
+            }
+            else if (op == DECREASE_KEY) {
+                try {
+                    this.heap.decreaseKey(req.node, req.key);
+                }
+                catch (RuntimeException e) { // e.g. a node already deleted by a deleteMin: it belongs to the caller
+                    req.error = e;
+                }
+                req.op = 0;
+            }
+            else {
+                if (takerCount == this.takers.length) {
+                    this.takers = java.util.Arrays.copyOf(this.takers, 2 * takerCount);
+                }
+                this.takers[takerCount++] = req;
+            }
+            return takerCount;
+        }
+
+        /** The publication slot of one thread; op is 0 when there is nothing pending. */
+        private static final class Request {
+            final Thread owner = Thread.currentThread();
+            volatile int op;
+            volatile boolean linked; // true while the request sits in a slot that combiners scan
+            int lastPass;   // the batch that last served this request
+            int key;        // insert key or decreaseKey delta
+            HeapNode node;  // decreaseKey argument, insert result
+            long result;    // deleteMin result
+            RuntimeException error; // thrown by the heap for this request, rethrown by its thread
+        }
+    }
+
+   /**
+    * public static class FibonacciBlockingQueue<E>
+    *
+    * A BlockingQueue ordered by a long priority taken from each element (smallest first), on a LongFibonacciHeap.
+    * All waiting is done on the Conditions of one ReentrantLock, never in synchronized blocks or with intrinsic
+    * monitors, so a virtual thread blocked in take or put unmounts instead of pinning its carrier thread.
+    * The queue may be bounded: put waits and offer fails while it holds capacity elements.
+    * Elements of equal priority leave in no particular order. Null elements are not permitted.
+    * The iterator walks a snapshot of the queue in no particular order; its remove deletes the element from the queue.
+    */
+    public static class FibonacciBlockingQueue<E> extends java.util.AbstractQueue<E>
+            implements java.util.concurrent.BlockingQueue<E> {
+
+        private LongFibonacciHeap<E> heap = new LongFibonacciHeap<>(); // replaced by clear
+        private int generation; // counts clears, so an iterator can tell its nodes were dropped
+        private final java.util.function.ToLongFunction<? super E> priority;
+        private final int capacity;
+        private final java.util.concurrent.locks.ReentrantLock lock = new java.util.concurrent.locks.ReentrantLock();
+        private final java.util.concurrent.locks.Condition notEmpty = this.lock.newCondition();
+        private final java.util.concurrent.locks.Condition notFull = this.lock.newCondition();
+
+       /**
+        * Constructor of FibonacciBlockingQueue!
+        *
+        * public FibonacciBlockingQueue(ToLongFunction<? super E> priority)
+        *
+        * Initializing an empty unbounded queue whose elements are ordered by priority.
+        *
+        * Complexity: O(1)
+        */
+        public FibonacciBlockingQueue(java.util.function.ToLongFunction<? super E> priority) {
+            this(priority, Integer.MAX_VALUE);
+        }
+
+       /**
+        * Constructor of FibonacciBlockingQueue!
+        *
+        * public FibonacciBlockingQueue(ToLongFunction<? super E> priority, int capacity)
+        *
+        * Initializing an empty queue, ordered by priority, that holds at most capacity elements.
+        *
+        * Complexity: O(1)
+        */
+        public FibonacciBlockingQueue(java.util.function.ToLongFunction<? super E> priority, int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be positive: " + capacity);
+            }
+            this.priority = java.util.Objects.requireNonNull(priority);
+            this.capacity = capacity;
+        }
+
+        /** Insert e with its key; called with the lock held and room in the queue. */
+        private void enqueue(E e, long key) {
+            this.heap.insert(key, e);
+            this.notEmpty.signal();
+        }
+
+        /** Remove and return the first element; called with the lock held and the queue not empty. */
+        private E dequeue() {
+            E res = this.heap.deleteMin().getValue();
+            this.notFull.signal();
+            return res;
+        }
+
+       /**
+        * public boolean offer(E e)
+        *
+        * Inserts e if the queue is not full.
+        *
+        * Complexity: O(1)
+        *
+        * Returns true if e was inserted.
+        */
+        @Override
+        public boolean offer(E e) {
+            long key = this.priority.applyAsLong(java.util.Objects.requireNonNull(e));
+            this.lock.lock();
+            try {
+                if (this.heap.size() >= this.capacity) {
+                    return false;
+                }
+                this.enqueue(e, key);
+                return true;
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public void put(E e)
+        *
+        * Inserts e, waiting for room if the queue is full.
+        *
+        * Complexity: O(1), plus the wait
+        */
+        @Override
+        public void put(E e) throws InterruptedException {
+            long key = this.priority.applyAsLong(java.util.Objects.requireNonNull(e));
+            this.lock.lockInterruptibly();
+            try {
+                while (this.heap.size() >= this.capacity) {
+                    this.notFull.await();
+                }
+                this.enqueue(e, key);
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public boolean offer(E e, long timeout, TimeUnit unit)
+        *
+        * Inserts e, waiting up to timeout for room if the queue is full.
+        *
+        * Complexity: O(1), plus the wait
+        *
+        * Returns true if e was inserted, false if the time ran out.
+        */
+        @Override
+        public boolean offer(E e, long timeout, java.util.concurrent.TimeUnit unit) throws InterruptedException {
+            long key = this.priority.applyAsLong(java.util.Objects.requireNonNull(e));
+            long nanos = unit.toNanos(timeout);
+            this.lock.lockInterruptibly();
+            try {
+                while (this.heap.size() >= this.capacity) {
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    nanos = this.notFull.awaitNanos(nanos);
+                }
+                this.enqueue(e, key);
+                return true;
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public E take()
+        *
+        * Removes and returns the element of smallest priority, waiting until one is available.
+        *
+        * Complexity: O(log(n)) amortized, plus the wait
+        */
+        @Override
+        public E take() throws InterruptedException {
+            this.lock.lockInterruptibly();
+            try {
+                while (this.heap.isEmpty()) {
+                    this.notEmpty.await();
+                }
+                return this.dequeue();
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public E poll(long timeout, TimeUnit unit)
+        *
+        * Removes and returns the element of smallest priority, waiting up to timeout for one to be available.
+        *
+        * Complexity: O(log(n)) amortized, plus the wait
+        *
+        * Returns the element, or null if the time ran out.
+        */
+        @Override
+        public E poll(long timeout, java.util.concurrent.TimeUnit unit) throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            this.lock.lockInterruptibly();
+            try {
+                while (this.heap.isEmpty()) {
+                    if (nanos <= 0) {
+                        return null;
+                    }
+                    nanos = this.notEmpty.awaitNanos(nanos);
+                }
+                return this.dequeue();
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public E poll()
+        *
+        * Removes and returns the element of smallest priority, or returns null if the queue is empty.
+        *
+        * Complexity: O(log(n)) amortized
+        */
+        @Override
+        public E poll() {
+            this.lock.lock();
+            try {
+                return this.heap.isEmpty() ? null : this.dequeue();
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public E peek()
+        *
+        * Returns the element of smallest priority without removing it, or null if the queue is empty.
+        *
+        * Complexity: O(1)
+        */
+        @Override
+        public E peek() {
+            this.lock.lock();
+            try {
+                LongFibonacciHeap.Node<E> node = this.heap.findMin();
+                return node == null ? null : node.getValue();
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public int drainTo(Collection<? super E> c, int maxElements)
+        *
+        * Removes up to maxElements elements in priority order and adds them to c, under one lock acquisition.
+        * The elements are taken with one LongFibonacciHeap.pollMin batch, so the trees are consolidated once
+        * rather than once per element, and not at all when the whole queue is drained.
+        *
+        * Complexity: O(t + m*log(n)) amortized, t - number of trees in heap, m - number of elements moved
+        *
+        * Returns the number of elements moved.
+        */
+        @Override
+        public int drainTo(java.util.Collection<? super E> c, int maxElements) {
+            java.util.Objects.requireNonNull(c);
+            if (c == this) {
+                throw new IllegalArgumentException("cannot drain a queue into itself");
+            }
+            if (maxElements <= 0) {
+                return 0;
+            }
+            this.lock.lock();
+            try {
+                int n = this.heap.pollMin(maxElements, node -> c.add(node.getValue()));
+                if (n > 0) {
+                    this.notFull.signalAll();
+                }
+                return n;
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public int drainTo(java.util.Collection<? super E> c) {
+            return this.drainTo(c, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int size() {
+            this.lock.lock();
+            try {
+                return (int) this.heap.size(); // never above capacity, an int
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public int remainingCapacity() {
+            this.lock.lock();
+            try {
+                return (int) (this.capacity - this.heap.size());
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public void clear()
+        *
+        * Removes every element by dropping the heap for an empty one; the old nodes are left to the garbage
+        * collector without being visited. They still report isInHeap, so clear bumps the generation that
+        * iterators check before removing a node.
+        *
+        * Complexity: O(1)
+        */
+        @Override
+        public void clear() {
+            this.lock.lock();
+            try {
+                this.heap = new LongFibonacciHeap<>();
+                this.generation++;
+                this.notFull.signalAll();
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public Iterator<E> iterator()
+        *
+        * Returns an iterator over a snapshot of the elements, in no particular order.
+        * Its remove deletes the element from the queue if it is still there.
+        *
+        * Complexity: O(n) to take the snapshot
+        */
+        @Override
+        public java.util.Iterator<E> iterator() {
+            java.util.List<LongFibonacciHeap.Node<E>> nodes = new java.util.ArrayList<>();
+            int gen;
+            this.lock.lock();
+            try {
+                gen = this.generation;
+                java.util.ArrayDeque<LongFibonacciHeap.Node<E>> rings = new java.util.ArrayDeque<>();
+                if (this.heap.getFirst() != null) {
+                    rings.push(this.heap.getFirst());
+                }
+                while (!rings.isEmpty()) { // every entry is the first of a sibling ring
+                    LongFibonacciHeap.Node<E> ring = rings.pop();
+                    LongFibonacciHeap.Node<E> iter = ring;
+                    do {
+                        nodes.add(iter);
+                        if (iter.getChild() != null) {
+                            rings.push(iter.getChild());
+                        }
+                        iter = iter.getNext();
+                    } while (iter != ring);
+                }
+            }
+            finally {
+                this.lock.unlock();
+            }
+            java.util.Iterator<LongFibonacciHeap.Node<E>> snapshot = nodes.iterator();
+            return new java.util.Iterator<E>() {
+                private LongFibonacciHeap.Node<E> last;
+
+                public boolean hasNext() {
+                    return snapshot.hasNext();
+                }
+
+                public E next() {
+                    this.last = snapshot.next();
+                    return this.last.getValue();
+                }
+
+                public void remove() {
+                    if (this.last == null) {
+                        throw new IllegalStateException();
+                    }
+                    FibonacciBlockingQueue.this.removeNode(this.last, gen);
+                    this.last = null;
+                }
+            };
+        }
+
+        /**
+         * Delete node if it is still in the queue; nodes are never reused, so isInHeap is reliable as long as no
+         * clear dropped the heap the node was taken from since generation gen.
+         */
+        private void removeNode(LongFibonacciHeap.Node<E> node, int gen) {
+            this.lock.lock();
+            try {
+                if (gen == this.generation && node.isInHeap()) {
+                    this.heap.delete(node);
+                    this.notFull.signal();
+                }
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+   /**
+    * public static class PriorityExecutor
+    *
+    * A work-stealing ExecutorService that runs tasks in order of a long priority (smallest first) per worker.
+    * Every worker owns a LongFibonacciHeap of its tasks behind its own lock. A task submitted by a worker goes to
+    * that worker's heap, other submissions are spread round-robin. A worker takes the minimum of its own heap;
+    * when its heap is empty it steals from another worker a whole tree of that worker's heap
+    * (LongFibonacciHeap.splitOffTree, O(1), one of the victim's biggest trees), never the tree holding the victim's
+    * minimum when there is another one, and melds it into its own heap, so one steal moves a batch of tasks with
+    * one splice each way and holds the victim's lock for O(1).
+    * Order is strict within a worker's heap and only approximate across workers: while one worker is descheduled
+    * or busy with a long task, the others keep running later tasks of their own heaps. With more threads than
+    * cores this dominates; in Benchmark.benchExecutor (4 threads, one core) about 2000 tasks of smaller priority
+    * run after a task on average, against about 1 for a ThreadPoolExecutor on one PriorityBlockingQueue.
+    * Use a single shared queue (FibonacciBlockingQueue) where the order across threads matters.
+    * A task that throws does not stop its worker; the exception goes to the uncaught exception handler.
+    */
+    public static class PriorityExecutor extends java.util.concurrent.AbstractExecutorService {
+
+        private static final long IDLE_WAIT_NANOS = java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(10);
+
+        private final Worker[] workers;
+        private final ThreadLocal<Worker> self = new ThreadLocal<>(); // set in each worker thread of this executor
+        private final java.util.concurrent.atomic.AtomicInteger nextWorker = new java.util.concurrent.atomic.AtomicInteger();
+        private final java.util.concurrent.atomic.AtomicLong pending = new java.util.concurrent.atomic.AtomicLong();
+        private final java.util.concurrent.atomic.AtomicLong steals = new java.util.concurrent.atomic.AtomicLong();
+        private final java.util.concurrent.locks.ReentrantLock idleLock = new java.util.concurrent.locks.ReentrantLock();
+        private final java.util.concurrent.locks.Condition workAvailable = this.idleLock.newCondition();
+        private final java.util.concurrent.CountDownLatch terminated;
+        private volatile int idle;
+        private volatile boolean shutdown; // written with every worker lock held, see stopAccepting
+
+       /**
+        * Constructor of PriorityExecutor!
+        *
+        * public PriorityExecutor(int threads)
+        *
+        * Initializing an executor and starting its threads workers.
+        *
+        * Complexity: O(threads)
+        */
+        public PriorityExecutor(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads must be positive: " + threads);
+            }
+            this.workers = new Worker[threads];
+            this.terminated = new java.util.concurrent.CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                this.workers[i] = new Worker(i);
+            }
+            for (Worker worker : this.workers) {
+                worker.thread.start();
+            }
+        }
+
+       /**
+        * public void execute(Runnable command, long priority)
+        *
+        * Queues command to run with the given priority; smaller priorities run first.
+        *
+        * Complexity: O(1)
+        */
+        public void execute(Runnable command, long priority) {
+            java.util.Objects.requireNonNull(command);
+            Worker target = this.self.get();
+            if (target == null) {
+                target = this.workers[Math.floorMod(this.nextWorker.getAndIncrement(), this.workers.length)];
+            }
+            target.lock.lock();
+            try {
+                if (this.shutdown) { // checked under the lock that stopAccepting also takes, so no task is lost
+                    throw new java.util.concurrent.RejectedExecutionException("executor is shut down");
+                }
+                target.heap.insert(priority, command);
+                this.pending.incrementAndGet();
+            }
+            finally {
+                target.lock.unlock();
+            }
+            if (this.idle > 0) {
+                this.idleLock.lock();
+                try {
+                    this.workAvailable.signal();
+                }
+                finally {
+                    this.idleLock.unlock();
+                }
+            }
+        }
+
+       /**
+        * public void execute(Runnable command)
+        *
+        * Queues command with priority 0.
+        *
+        * Complexity: O(1)
+        */
+        @Override
+        public void execute(Runnable command) {
+            this.execute(command, 0);
+        }
+
+       /**
+        * public <T> Future<T> submit(Callable<T> task, long priority)
+        *
+        * Queues task to run with the given priority and returns its Future.
+        *
+        * Complexity: O(1)
+        */
+        public <T> java.util.concurrent.Future<T> submit(java.util.concurrent.Callable<T> task, long priority) {
+            java.util.concurrent.RunnableFuture<T> future = this.newTaskFor(task);
+            this.execute(future, priority);
+            return future;
+        }
+
+       /**
+        * public long getStealCount()
+        *
+        * Returns the number of trees stolen between workers so far.
+        *
+        * Complexity: O(1)
+        */
+        public long getStealCount() {
+            return this.steals.get();
+        }
+
+        @Override
+        public void shutdown() {
+            this.stopAccepting();
+            this.wakeAll();
+        }
+
+        @Override
+        public java.util.List<Runnable> shutdownNow() {
+            this.stopAccepting();
+            java.util.List<Runnable> res = new java.util.ArrayList<>();
+            for (Worker worker : this.workers) {
+                worker.lock.lock();
+                try {
+                    while (!worker.heap.isEmpty()) {
+                        res.add(worker.heap.deleteMin().getValue());
+                        this.pending.decrementAndGet();
+                    }
+                }
+                finally {
+                    worker.lock.unlock();
+                }
+                worker.thread.interrupt();
+            }
+            this.wakeAll();
+            return res;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.terminated.getCount() == 0;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, java.util.concurrent.TimeUnit unit) throws InterruptedException {
+            return this.terminated.await(timeout, unit);
+        }
+
+       /**
+        * private void stopAccepting()
+        *
+        * Set shutdown while holding every worker lock. An execute that saw shutdown unset has then already counted
+        * its task in pending, so a worker that reads shutdown and then pending == 0 cannot miss it.
+        */
+        private void stopAccepting() {
+            int locked = 0;
+            try {
+                for (; locked < this.workers.length; locked++) {
+                    this.workers[locked].lock.lock();
+                }
+                this.shutdown = true;
+            }
+            finally {
+                for (int i = 0; i < locked; i++) {
+                    this.workers[i].lock.unlock();
+                }
+            }
+        }
+
+        private void wakeAll() {
+            this.idleLock.lock();
+            try {
+                this.workAvailable.signalAll();
+            }
+            finally {
+                this.idleLock.unlock();
+            }
+        }
+
+       /**
+        * private boolean steal(Worker thief)
+        *
+        * Move one tree from the heap of another worker to thief's heap, trying the other workers in turn from a
+        * random one and skipping those whose lock is busy.
+        *
+        * Returns true if a tree was moved.
+        */
+        private boolean steal(Worker thief) {
+            int n = this.workers.length;
+            int start = java.util.concurrent.ThreadLocalRandom.current().nextInt(n);
+            for (int i = 0; i < n; i++) {
+                Worker victim = this.workers[(start + i) % n];
+                if (victim == thief || !victim.lock.tryLock()) {
+                    continue;
+                }
+                LongFibonacciHeap<Runnable> tree;
+                try {
+                    tree = victim.heap.splitOffTree(); // O(1), and null if the victim has nothing
+                }
+                finally {
+                    victim.lock.unlock();
+                }
+                if (tree != null) {
+                    thief.lock.lock();
+                    try {
+                        thief.heap.meld(tree);
+                    }
+                    finally {
+                        thief.lock.unlock();
+                    }
+                    this.steals.incrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Wait a little for new work; returns false once the executor is shut down and drained. */
+        private boolean awaitWork() {
+            this.idleLock.lock();
+            try {
+                this.idle++;
+                try {
+                    boolean stopping = this.shutdown; // read before pending, see stopAccepting
+                    if (this.pending.get() > 0) { // submitted after our last look: do not sleep
+                        return true;
+                    }
+                    if (stopping) {
+                        return false;
+                    }
+                    this.workAvailable.awaitNanos(IDLE_WAIT_NANOS);
+                }
+                finally {
+                    this.idle--;
+                }
+            }
+            catch (InterruptedException e) {
+                // shutdownNow: the loop looks at the shutdown flag again
+            }
+            finally {
+                this.idleLock.unlock();
+            }
+            return true;
+        }
+
+        private final class Worker implements Runnable {
+            final LongFibonacciHeap<Runnable> heap = new LongFibonacciHeap<>();
+            final java.util.concurrent.locks.ReentrantLock lock = new java.util.concurrent.locks.ReentrantLock();
+            final Thread thread;
+
+            Worker(int index) {
+                this.thread = new Thread(this, "priority-executor-" + index);
+            }
+
+            /** Remove and return the first task of this worker's heap, or null if it is empty. */
+            private Runnable poll() {
+                this.lock.lock();
+                try {
+                    LongFibonacciHeap.Node<Runnable> node = this.heap.deleteMin();
+                    return node == null ? null : node.getValue();
+                }
+                finally {
+                    this.lock.unlock();
+                }
+            }
+
+            @Override
+            public void run() {
+                PriorityExecutor.this.self.set(this);
+                try {
+                    while (true) {
+                        Runnable task = this.poll();
+                        if (task != null) {
+                            PriorityExecutor.this.pending.decrementAndGet();
+                            try {
+                                task.run();
+                            }
+                            catch (RuntimeException | Error e) {
+                                Thread.UncaughtExceptionHandler handler = this.thread.getUncaughtExceptionHandler();
+                                handler.uncaughtException(this.thread, e);
+                            }
+                            continue;
+                        }
+                        if (PriorityExecutor.this.steal(this)) {
+                            continue;
+                        }
+                        if (!PriorityExecutor.this.awaitWork()) {
+                            return;
+                        }
+                    }
+                }
+                finally {
+                    PriorityExecutor.this.terminated.countDown();
+                }
+            }
+        }
+    }
+
+   /**
+    * public static class FibonacciScheduledExecutor
+    *
+    * A ScheduledExecutorService whose delay queue is a LongFibonacciHeap keyed by deadline (nanoseconds since the
+    * executor was created). Every task keeps its heap node, so cancel deletes it with a cut and no consolidation
+    * (LongFibonacciHeap.delete) and reschedule moves it with decreaseKey when the new deadline is earlier.
+    * When the earliest deadline passes, a worker takes every due task at once with drainUpTo, which costs one
+    * consolidation for the whole batch, and hands them out in deadline order to the workers through a ready queue.
+    * As in ScheduledThreadPoolExecutor, the worker waiting for the earliest deadline is the only one with a timed
+    * wait (leader/follower), delayed one-shot tasks still run after shutdown and periodic tasks stop.
+    */
+    public static class FibonacciScheduledExecutor extends java.util.concurrent.AbstractExecutorService
+            implements java.util.concurrent.ScheduledExecutorService {
+
+        private final long origin = System.nanoTime();
+        private final LongFibonacciHeap<Task<?>> heap = new LongFibonacciHeap<>();
+        private final java.util.ArrayDeque<Task<?>> ready = new java.util.ArrayDeque<>();
+        private final java.util.concurrent.locks.ReentrantLock lock = new java.util.concurrent.locks.ReentrantLock();
+        private final java.util.concurrent.locks.Condition available = this.lock.newCondition();
+        private final Thread[] workers;
+        private final java.util.concurrent.CountDownLatch terminated;
+        private Thread leader; // the worker waiting for the earliest deadline
+        private long batches;
+        private volatile boolean shutdown;
+
+       /**
+        * Constructor of FibonacciScheduledExecutor!
+        *
+        * public FibonacciScheduledExecutor(int threads)
+        *
+        * Initializing a scheduler and starting its threads workers.
+        *
+        * Complexity: O(threads)
+        */
+        public FibonacciScheduledExecutor(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads must be positive: " + threads);
+            }
+            this.workers = new Thread[threads];
+            this.terminated = new java.util.concurrent.CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                this.workers[i] = new Thread(this::work, "fibonacci-scheduler-" + i);
+                this.workers[i].start();
+            }
+        }
+
+        private long now() {
+            return System.nanoTime() - this.origin;
+        }
+
+        /** The deadline delay from now, saturated so that far deadlines do not overflow. */
+        private long deadline(long delay, java.util.concurrent.TimeUnit unit) {
+            long nanos = Math.max(unit.toNanos(delay), 0);
+            long now = this.now();
+            return nanos >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + nanos;
+        }
+
+        @Override
+        public java.util.concurrent.ScheduledFuture<?> schedule(Runnable command, long delay,
+                java.util.concurrent.TimeUnit unit) {
+            java.util.Objects.requireNonNull(command);
+            return this.enqueue(new Task<Void>(java.util.concurrent.Executors.callable(command, null),
+                    this.deadline(delay, unit), 0));
+        }
+
+        @Override
+        public <V> java.util.concurrent.ScheduledFuture<V> schedule(java.util.concurrent.Callable<V> callable,
+                long delay, java.util.concurrent.TimeUnit unit) {
+            java.util.Objects.requireNonNull(callable);
+            return this.enqueue(new Task<V>(callable, this.deadline(delay, unit), 0));
+        }
+
+        @Override
+        public java.util.concurrent.ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay,
+                long period, java.util.concurrent.TimeUnit unit) {
+            java.util.Objects.requireNonNull(command);
+            if (period <= 0) {
+                throw new IllegalArgumentException("period must be positive: " + period);
+            }
+            return this.enqueue(new Task<Void>(java.util.concurrent.Executors.callable(command, null),
+                    this.deadline(initialDelay, unit), unit.toNanos(period)));
+        }
+
+        @Override
+        public java.util.concurrent.ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay,
+                long delay, java.util.concurrent.TimeUnit unit) {
+            java.util.Objects.requireNonNull(command);
+            if (delay <= 0) {
+                throw new IllegalArgumentException("delay must be positive: " + delay);
+            }
+            return this.enqueue(new Task<Void>(java.util.concurrent.Executors.callable(command, null),
+                    this.deadline(initialDelay, unit), -unit.toNanos(delay)));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            this.schedule(command, 0, java.util.concurrent.TimeUnit.NANOSECONDS);
+        }
+
+        private <V> Task<V> enqueue(Task<V> task) {
+            this.lock.lock();
+            try {
+                if (this.shutdown) { // under the lock: shutdown cannot slip in between the check and the insert
+                    throw new java.util.concurrent.RejectedExecutionException("executor is shut down");
+                }
+                this.insert(task);
+            }
+            finally {
+                this.lock.unlock();
+            }
+            return task;
+        }
+
+        /** Put task in the heap and wake a worker if it is the new earliest deadline; called with the lock held. */
+        private void insert(Task<?> task) {
+            task.node = this.heap.insert(task.deadline, task);
+            if (this.heap.findMin() == task.node) {
+                this.leader = null;
+                this.available.signal();
+            }
+        }
+
+       /**
+        * public boolean reschedule(ScheduledFuture<?> future, long delay, TimeUnit unit)
+        *
+        * Moves the deadline of a pending task of this executor to delay from now: with decreaseKey when it comes
+        * earlier, by delete and insert otherwise.
+        *
+        * Complexity: O(1) amortized when earlier, O(1 + rank) amortized otherwise
+        *
+        * Returns false if future is not a task of this executor that is still waiting for its deadline.
+        */
+        public boolean reschedule(java.util.concurrent.ScheduledFuture<?> future, long delay,
+                java.util.concurrent.TimeUnit unit) {
+            if (!(future instanceof Task) || ((Task<?>) future).owner() != this) {
+                return false;
+            }
+            Task<?> task = (Task<?>) future;
+            long deadline = this.deadline(delay, unit);
+            this.lock.lock();
+            try {
+                if (task.node == null || !task.node.isInHeap() || task.isDone()) {
+                    return false;
+                }
+                if (deadline <= task.deadline) {
+                    this.heap.decreaseKey(task.node, deadline);
+                    task.deadline = deadline;
+                    if (this.heap.findMin() == task.node) {
+                        this.leader = null;
+                        this.available.signal();
+                    }
+                }
+                else {
+                    this.heap.delete(task.node);
+                    task.deadline = deadline;
+                    this.insert(task);
+                }
+                return true;
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public int getQueueSize()
+        *
+        * Returns the number of tasks waiting for their deadline or for a worker.
+        *
+        * Complexity: O(1)
+        */
+        public int getQueueSize() {
+            this.lock.lock();
+            try {
+                return (int) Math.min(this.heap.size() + this.ready.size(), Integer.MAX_VALUE);
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * public long getBatchCount()
+        *
+        * Returns the number of drainUpTo batches taken from the heap so far.
+        *
+        * Complexity: O(1)
+        */
+        public long getBatchCount() {
+            this.lock.lock();
+            try {
+                return this.batches;
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+        /** Delete a cancelled task from the heap, so it does not stay there until its deadline. */
+        private void remove(Task<?> task) {
+            this.lock.lock();
+            try {
+                if (task.node != null && task.node.isInHeap()) {
+                    this.heap.delete(task.node);
+                }
+                task.node = null;
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+       /**
+        * private Task<?> take()
+        *
+        * Wait for the next task to run: from the ready queue, or by draining every due task from the heap.
+        *
+        * Returns null once the executor is shut down and has no task left.
+        */
+        private Task<?> take() throws InterruptedException {
+            this.lock.lockInterruptibly();
+            try {
+                while (true) {
+                    Task<?> task = this.ready.pollFirst();
+                    if (task != null) {
+                        return task;
+                    }
+                    LongFibonacciHeap.Node<Task<?>> first = this.heap.findMin();
+                    if (first == null) {
+                        if (this.shutdown) {
+                            return null;
+                        }
+                        this.available.await();
+                        continue;
+                    }
+                    long now = this.now();
+                    long delay = first.getKey() - now;
+                    if (delay > 0) {
+                        if (this.leader != null) {
+                            this.available.await();
+                            continue;
+                        }
+                        Thread current = Thread.currentThread();
+                        this.leader = current;
+                        try {
+                            this.available.awaitNanos(delay);
+                        }
+                        finally {
+                            if (this.leader == current) {
+                                this.leader = null;
+                            }
+                        }
+                        continue;
+                    }
+                    java.util.ArrayList<Task<?>> due = new java.util.ArrayList<>();
+                    this.heap.drainUpTo(now, node -> due.add(node.getValue()));
+                    due.sort((a, b) -> Long.compare(a.deadline, b.deadline));
+                    for (Task<?> t : due) {
+                        t.node = null;
+                    }
+                    this.ready.addAll(due);
+                    this.batches++;
+                }
+            }
+            finally {
+                if (this.leader == null && (!this.ready.isEmpty() || this.heap.findMin() != null)) {
+                    this.available.signal(); // pass the turn on: more ready tasks, or a new leader is needed
+                }
+                this.lock.unlock();
+            }
+        }
+
+        private void work() {
+            try {
+                while (true) {
+                    Task<?> task;
+                    try {
+                        task = this.take();
+                    }
+                    catch (InterruptedException e) {
+                        if (this.shutdown) {
+                            return;
+                        }
+                        continue;
+                    }
+                    if (task == null) {
+                        return;
+                    }
+                    task.run();
+                }
+            }
+            finally {
+                this.terminated.countDown();
+            }
+        }
+
+        /**
+         * Put a periodic task back for its next run, unless the executor was shut down or the task cancelled
+         * meanwhile. cancel sets the state before it takes the lock to remove the node, so checking isCancelled
+         * under the lock either sees the cancel or inserts before the remove that will delete the node again.
+         */
+        private void reschedulePeriodic(Task<?> task) {
+            this.lock.lock();
+            try {
+                if (task.isCancelled()) {
+                    return;
+                }
+                if (!this.shutdown) {
+                    this.insert(task);
+                    return;
+                }
+            }
+            finally {
+                this.lock.unlock();
+            }
+            task.cancel(false);
+        }
+
+        @Override
+        public void shutdown() {
+            this.lock.lock();
+            try {
+                this.shutdown = true;
+                java.util.ArrayList<Task<?>> periodic = new java.util.ArrayList<>();
+                java.util.ArrayDeque<LongFibonacciHeap.Node<Task<?>>> rings = new java.util.ArrayDeque<>();
+                if (this.heap.getFirst() != null) {
+                    rings.push(this.heap.getFirst());
+                }
+                while (!rings.isEmpty()) { // periodic tasks do not run again after shutdown
+                    LongFibonacciHeap.Node<Task<?>> ring = rings.pop();
+                    LongFibonacciHeap.Node<Task<?>> iter = ring;
+                    do {
+                        if (iter.getValue().period != 0) {
+                            periodic.add(iter.getValue());
+                        }
+                        if (iter.getChild() != null) {
+                            rings.push(iter.getChild());
+                        }
+                        iter = iter.getNext();
+                    } while (iter != ring);
+                }
+                for (Task<?> task : periodic) {
+                    this.heap.delete(task.node);
+                    task.node = null;
+                    task.cancelFuture();
+                }
+                this.available.signalAll();
+            }
+            finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public java.util.List<Runnable> shutdownNow() {
+            java.util.List<Runnable> res = new java.util.ArrayList<>();
+            this.lock.lock();
+            try {
+                this.shutdown = true;
+                res.addAll(this.ready);
+                this.ready.clear();
+                while (!this.heap.isEmpty()) {
+                    Task<?> task = this.heap.deleteMin().getValue();
+                    task.node = null;
+                    res.add(task);
+                }
+                this.available.signalAll();
+            }
+            finally {
+                this.lock.unlock();
+            }
+            for (Thread worker : this.workers) {
+                worker.interrupt();
+            }
+            return res;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.terminated.getCount() == 0;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, java.util.concurrent.TimeUnit unit) throws InterruptedException {
+            return this.terminated.await(timeout, unit);
+        }
+
+        /** A scheduled task: its deadline, its period (0 one-shot, > 0 fixed rate, < 0 fixed delay) and heap node. */
+        private final class Task<V> extends java.util.concurrent.FutureTask<V>
+                implements java.util.concurrent.RunnableScheduledFuture<V> {
+            volatile long deadline;
+            final long period;
+            LongFibonacciHeap.Node<Task<?>> node; // guarded by the executor lock; null when not in the heap
+
+            Task(java.util.concurrent.Callable<V> callable, long deadline, long period) {
+                super(callable);
+                this.deadline = deadline;
+                this.period = period;
+            }
+
+            FibonacciScheduledExecutor owner() {
+                return FibonacciScheduledExecutor.this;
+            }
+
+            @Override
+            public boolean isPeriodic() {
+                return this.period != 0;
+            }
+
+            @Override
+            public long getDelay(java.util.concurrent.TimeUnit unit) {
+                return unit.convert(this.deadline - FibonacciScheduledExecutor.this.now(),
+                        java.util.concurrent.TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public int compareTo(java.util.concurrent.Delayed other) {
+                if (other == this) {
+                    return 0;
+                }
+                return Long.compare(this.getDelay(java.util.concurrent.TimeUnit.NANOSECONDS),
+                        other.getDelay(java.util.concurrent.TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean res = super.cancel(mayInterruptIfRunning);
+                if (res) {
+                    FibonacciScheduledExecutor.this.remove(this);
+                }
+                return res;
+            }
+
+            /** Cancel without touching the heap; called with the executor lock held. */
+            void cancelFuture() {
+                super.cancel(false);
+            }
+
+            @Override
+            public void run() {
+                if (this.period == 0) {
+                    super.run();
+                }
+                else if (super.runAndReset()) {
+                    this.deadline = this.period > 0 ? this.deadline + this.period
+                            : FibonacciScheduledExecutor.this.now() - this.period;
+                    FibonacciScheduledExecutor.this.reschedulePeriodic(this);
+                }
+            }
+        }
+    }
+
+   /**
+    * public static class CsrGraph
+    *
+    * A weighted directed graph in compressed sparse row form: the arcs leaving vertex v are
+    * firstArc(v) .. endArc(v)-1, with their heads and weights in two int arrays. There are no per-vertex or
+    * per-arc objects, so a road network of millions of arcs takes three int arrays and scans sequentially.
+    * An undirected edge is stored as two arcs. Weights are non-negative ints.
+    */
+    public static class CsrGraph {
+
+        private final int[] offsets; // arcs of v are offsets[v] .. offsets[v+1]-1
+        private final int[] heads;
+        private final int[] weights;
+
+       /**
+        * Constructor of CsrGraph!
+        *
+        * public CsrGraph(int n, int[] from, int[] to, int[] weight, int m, boolean undirected)
+        *
+        * Builds the graph of n vertices from the first m edges (from[i], to[i], weight[i]) with a counting sort.
+        * If undirected is true every edge is stored in both directions.
+        *
+        * Complexity: O(n + m)
+        */
+        public CsrGraph(int n, int[] from, int[] to, int[] weight, int m, boolean undirected) {
+            if (n < 0 || m < 0 || m > from.length || m > to.length || m > weight.length) {
+                throw new IllegalArgumentException("bad graph size: n=" + n + ", m=" + m);
+            }
+            int arcs = undirected ? 2 * m : m;
+            this.offsets = new int[n + 1];
+            this.heads = new int[arcs];
+            this.weights = new int[arcs];
+            for (int i = 0; i < m; i++) {
+                if (from[i] < 0 || from[i] >= n || to[i] < 0 || to[i] >= n) {
+                    throw new IllegalArgumentException("edge " + i + " has a vertex out of range [0, " + n + ")");
+                }
+                if (weight[i] < 0) {
+                    throw new IllegalArgumentException("edge " + i + " has a negative weight " + weight[i]);
+                }
+                this.offsets[from[i] + 1]++;
+                if (undirected) {
+                    this.offsets[to[i] + 1]++;
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                this.offsets[v + 1] += this.offsets[v];
+            }
+            int[] fill = java.util.Arrays.copyOf(this.offsets, n);
+            for (int i = 0; i < m; i++) {
+                int arc = fill[from[i]]++;
+                this.heads[arc] = to[i];
+                this.weights[arc] = weight[i];
+                if (undirected) {
+                    arc = fill[to[i]]++;
+                    this.heads[arc] = from[i];
+                    this.weights[arc] = weight[i];
+                }
+            }
+        }
+
+       /**
+        * public static CsrGraph readDimacs(Reader in)
+        *
+        * Loads a graph in the DIMACS shortest path format used for the road networks of the 9th DIMACS challenge:
+        * "c" comment lines, one "p sp n m" line, then m "a u v w" arc lines with vertices numbered from 1.
+        * Vertices are renumbered from 0. Malformed input throws IllegalArgumentException.
+        *
+        * Complexity: O(n + m)
+        */
+        public static CsrGraph readDimacs(java.io.Reader in) throws java.io.IOException {
+            java.io.BufferedReader reader = in instanceof java.io.BufferedReader
+                    ? (java.io.BufferedReader) in : new java.io.BufferedReader(in);
+            int n = -1;
+            int m = 0;
+            int[] from = null;
+            int[] to = null;
+            int[] weight = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.charAt(0) == 'c') {
+                    continue;
+                }
+                String[] f = line.trim().split("\\s+");
+                try {
+                    if (f[0].equals("p")) {
+                        n = Integer.parseInt(f[2]);
+                        int arcs = Integer.parseInt(f[3]);
+                        from = new int[arcs];
+                        to = new int[arcs];
+                        weight = new int[arcs];
+                    }
+                    else if (f[0].equals("a")) {
+                        if (from == null) {
+                            throw new IllegalArgumentException("arc before the problem line: " + line);
+                        }
+                        if (m == from.length) {
+                            throw new IllegalArgumentException("more arcs than the problem line declares");
+                        }
+                        from[m] = Integer.parseInt(f[1]) - 1;
+                        to[m] = Integer.parseInt(f[2]) - 1;
+                        weight[m] = Integer.parseInt(f[3]);
+                        m++;
+                    }
+                }
+                catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new IllegalArgumentException("malformed line: " + line, e);
+                }
+            }
+            if (n < 0) {
+                throw new IllegalArgumentException("no problem line");
+            }
+            return new CsrGraph(n, from, to, weight, m, false);
+        }
+
+        public int numVertices() {
+            return this.offsets.length - 1;
+        }
+
+        public int numArcs() {
+            return this.heads.length;
+        }
+
+        public int firstArc(int v) {
+            return this.offsets[v];
+        }
+
+        public int endArc(int v) {
+            return this.offsets[v + 1];
+        }
+
+        public int head(int arc) {
+            return this.heads[arc];
+        }
+
+        public int weight(int arc) {
+            return this.weights[arc];
+        }
+    }
+
+   /**
+    * public static class GraphAlgorithms
+    *
+    * Dijkstra, Prim and A* on a CsrGraph over any IndexedIntHeap: every improvement of a tentative distance is a
+    * decreaseKey, which is where a Fibonacci heap's O(1) amortized decreaseKey pays off.
+    * The heap is passed in, empty and with capacity of at least the number of vertices, so one run can be repeated
+    * on IndexedFibonacciHeap, IndexedBinaryHeap and IndexedPairingHeap. Distances are ints; a path longer than
+    * Integer.MAX_VALUE - 1 throws ArithmeticException.
+    */
+    public static class GraphAlgorithms {
+
+        public static final int INFINITY = Integer.MAX_VALUE; // distance of an unreachable vertex
+
+        private GraphAlgorithms() {
+        }
+
+        /** du + w, which must stay below INFINITY, the mark of an unreached vertex. */
+        private static int extend(int du, int w) {
+            int res = Math.addExact(du, w);
+            if (res == INFINITY) {
+                throw new ArithmeticException("path length reaches Integer.MAX_VALUE");
+            }
+            return res;
+        }
+
+        private static void checkHeap(CsrGraph g, IndexedIntHeap heap) {
+            if (!heap.isEmpty() || heap.capacity() < g.numVertices()) {
+                throw new IllegalArgumentException("heap must be empty and hold " + g.numVertices() + " ids");
+            }
+        }
+
+       /**
+        * public static int[] dijkstra(CsrGraph g, int source, IndexedIntHeap heap, int[] parent)
+        *
+        * Single-source shortest paths from source. If parent is not null, parent[v] is set to the predecessor of v
+        * on a shortest path (NONE for the source and for unreachable vertices).
+        *
+        * Complexity: O(m + n*log(n)) with IndexedFibonacciHeap, O((n + m)*log(n)) with IndexedBinaryHeap
+        *
+        * Returns the distances, INFINITY for unreachable vertices.
+        */
+        public static int[] dijkstra(CsrGraph g, int source, IndexedIntHeap heap, int[] parent) {
+            checkHeap(g, heap);
+            int[] dist = new int[g.numVertices()];
+            java.util.Arrays.fill(dist, INFINITY);
+            if (parent != null) {
+                java.util.Arrays.fill(parent, IndexedIntHeap.NONE);
+            }
+            dist[source] = 0;
+            heap.insert(source, 0);
+            while (!heap.isEmpty()) {
+                int u = heap.deleteMin();
+                int du = dist[u];
+                for (int arc = g.firstArc(u), end = g.endArc(u); arc < end; arc++) {
+                    int v = g.head(arc);
+                    int d = extend(du, g.weight(arc));
+                    if (d < dist[v]) { // a settled vertex never improves, so v is new or still in the heap
+                        if (dist[v] == INFINITY) {
+                            heap.insert(v, d);
+                        }
+                        else {
+                            heap.decreaseKey(v, d);
+                        }
+                        dist[v] = d;
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+            return dist;
+        }
+
+       /**
+        * public static long prim(CsrGraph g, IndexedIntHeap heap, int[] parent)
+        *
+        * Minimum spanning forest of an undirected graph (every edge stored in both directions).
+        * If parent is not null, parent[v] is set to the neighbour through which v joined the forest
+        * (NONE for the first vertex of every tree).
+        * A new edge can be lighter than the one just taken, so a monotone heap (IndexedRadixHeap) is rejected
+        * with IllegalArgumentException. Whether a vertex was reached is kept apart from its best weight, so edges of
+        * weight Integer.MAX_VALUE (INFINITY) are taken like any other.
+        *
+        * Complexity: O(m + n*log(n)) with IndexedFibonacciHeap
+        *
+        * Returns the total weight of the forest.
+        */
+        public static long prim(CsrGraph g, IndexedIntHeap heap, int[] parent) {
+            checkHeap(g, heap);
+            if (heap.isMonotone()) {
+                throw new IllegalArgumentException("prim needs keys below the last minimum, a monotone heap cannot hold them");
+            }
+            int n = g.numVertices();
+            int[] best = new int[n]; // lightest known edge from the forest to v
+            boolean[] reached = new boolean[n]; // in the heap or in the forest
+            boolean[] inTree = new boolean[n];
+            if (parent != null) {
+                java.util.Arrays.fill(parent, IndexedIntHeap.NONE);
+            }
+            long total = 0;
+            for (int start = 0; start < n; start++) {
+                if (reached[start]) {
+                    continue;
+                }
+                reached[start] = true;
+                best[start] = 0;
+                heap.insert(start, 0);
+                while (!heap.isEmpty()) {
+                    int u = heap.deleteMin();
+                    inTree[u] = true;
+                    total += best[u];
+                    for (int arc = g.firstArc(u), end = g.endArc(u); arc < end; arc++) {
+                        int v = g.head(arc);
+                        int w = g.weight(arc);
+                        if (inTree[v]) {
+                            continue;
+                        }
+                        if (!reached[v]) {
+                            reached[v] = true;
+                            heap.insert(v, w);
+                        }
+                        else if (w < best[v]) {
+                            heap.decreaseKey(v, w);
+                        }
+                        else {
+                            continue;
+                        }
+                        best[v] = w;
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+            return total;
+        }
+
+       /**
+        * public static int astar(CsrGraph g, int source, int target, IntUnaryOperator lowerBound,
+        *                         IndexedIntHeap heap, int[] parent)
+        *
+        * Shortest path from source to target, guided by lowerBound(v), a lower bound of the distance from v to target.
+        * The heap is keyed by distance plus bound; the search stops when target leaves the heap. With a consistent
+        * bound every vertex leaves the heap once; an inconsistent one is handled by inserting a vertex again.
+        * The heap is left empty. If parent is not null it holds the predecessors as in dijkstra.
+        *
+        * Complexity: O(m + n*log(n)) with IndexedFibonacciHeap and a consistent bound, usually far less
+        *
+        * Returns the distance from source to target, or INFINITY if target is unreachable.
+        */
+        public static int astar(CsrGraph g, int source, int target, java.util.function.IntUnaryOperator lowerBound,
+                IndexedIntHeap heap, int[] parent) {
+            checkHeap(g, heap);
+            int[] dist = new int[g.numVertices()];
+            java.util.Arrays.fill(dist, INFINITY);
+            if (parent != null) {
+                java.util.Arrays.fill(parent, IndexedIntHeap.NONE);
+            }
+            dist[source] = 0;
+            heap.insert(source, lowerBound.applyAsInt(source));
+            int res = INFINITY;
+            while (!heap.isEmpty()) {
+                int u = heap.deleteMin();
+                if (u == target) {
+                    res = dist[u];
+                    break;
+                }
+                int du = dist[u];
+                for (int arc = g.firstArc(u), end = g.endArc(u); arc < end; arc++) {
+                    int v = g.head(arc);
+                    int d = extend(du, g.weight(arc));
+                    if (d < dist[v]) {
+                        dist[v] = d;
+                        int f = Math.addExact(d, lowerBound.applyAsInt(v));
+                        if (heap.contains(v)) {
+                            heap.decreaseKey(v, f);
+                        }
+                        else {
+                            heap.insert(v, f);
+                        }
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+            while (!heap.isEmpty()) {
+                heap.deleteMin();
+            }
+            return res;
+        }
+    }
+
+   /**
+    * public static class RadixHeap
+    *
+    * A radix heap over integers for monotone workloads, such as Dijkstra with non-negative weights, where no key is
+    * ever inserted or decreased below the last key taken by deleteMin. It has the insert/findMin/deleteMin/
+    * decreaseKey/delete API of FibonacciHeap, with node handles, but keeps no trees: a node sits in bucket i,
+    * where i is the position of the highest bit in which its key differs from the last extracted key (bucket 0 holds
+    * keys equal to it). deleteMin only redistributes the lowest non-empty bucket, and every node moves to a lower
+    * bucket each time it is redistributed, so it is moved at most 33 times in its life.
+    * Signed keys are ordered as unsigned ones with the sign bit flipped; the flip cancels in key ^ last, so the
+    * bucket index needs no mapping.
+    * An insert or decreaseKey below the last extracted key breaks monotonicity and throws IllegalArgumentException,
+    * leaving the heap unchanged.
+    */
+    public static class RadixHeap {
+
+        private static final int NUM_BUCKETS = 33;
+
+        private final Node[] buckets = new Node[NUM_BUCKETS]; // circular doubly linked lists, null when empty
+        private long occupied; // bit i is set when buckets[i] is not empty
+        private int last = Integer.MIN_VALUE; // the key last taken by deleteMin
+        private Node min; // cached minimum, null when unknown or empty
+        private int size;
+        private long countMoves;
+
+       /**
+        * public boolean isEmpty()
+        *
+        * Returns true if and only if the heap is empty.
+        */
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+       /**
+        * public int getLastMin()
+        *
+        * Returns the key last taken by deleteMin (Integer.MIN_VALUE before the first one): the smallest key that
+        * insert and decreaseKey accept.
+        */
+        public int getLastMin() {
+            return this.last;
+        }
+
+       /**
+        * public long getCountMoves()
+        *
+        * Returns the number of times a node was moved to a lower bucket by deleteMin, the radix heap's counterpart
+        * of FibonacciHeap's links.
+        */
+        public long getCountMoves() {
+            return this.countMoves;
+        }
+
+       /**
+        * public Node insert(int key)
+        *
+        * Creates a node which contains the given key, and inserts it into the heap.
+        * Throws IllegalArgumentException if key is smaller than getLastMin().
+        *
+        * Complexity: O(1)
+        *
+        * Returns the newly created node.
+        */
+        public Node insert(int key) {
+            return this.insert(key, 0);
+        }
+
+       /**
+        * public Node insert(int key, int value)
+        *
+        * Creates a node which contains the given key and an int value (a vertex, an index into a side table),
+        * and inserts it into the heap. Throws IllegalArgumentException if key is smaller than getLastMin().
+        *
+        * Complexity: O(1)
+        *
+        * Returns the newly created node.
+        */
+        public Node insert(int key, int value) {
+            this.checkMonotone(key);
+            Node x = new Node(key, value);
+            this.add(x);
+            this.size++;
+            if (this.min != null && key < this.min.key) {
+                this.min = x;
+            }
+            return x;
+        }
+
+       /**
+        * public Node findMin()
+        *
+        * Returns a node of minimal key, or null if the heap is empty. The heap is not changed.
+        *
+        * Complexity: O(1) for bucket 0, otherwise O(size of the lowest non-empty bucket); the result is cached
+        */
+        public Node findMin() {
+            if (this.min == null && this.size > 0) {
+                int i = Long.numberOfTrailingZeros(this.occupied);
+                Node head = this.buckets[i];
+                Node res = head;
+                if (i > 0) {
+                    for (Node x = head.next; x != head; x = x.next) {
+                        if (x.key < res.key) {
+                            res = x;
+                        }
+                    }
+                }
+                this.min = res;
+            }
+            return this.min;
+        }
+
+       /**
+        * public void deleteMin()
+        *
+        * Deletes a node of minimal key and makes its key the last extracted one. If that node is not in bucket 0,
+        * its bucket is redistributed around the new last key first.
+        *
+        * Complexity: O(log C) amortized, where C bounds the key range
+        */
+        public void deleteMin() {
+            Node x = this.findMin();
+            if (x == null) {
+                return;
+            }
+            this.last = x.key;
+            int i = x.bucket;
+            if (i > 0) {
+                Node head = this.buckets[i];
+                this.buckets[i] = null;
+                this.occupied &= ~(1L << i);
+                Node y = head;
+                do {
+                    Node next = y.next;
+                    this.add(y);
+                    this.countMoves++;
+                    y = next;
+                } while (y != head);
+            }
+            this.remove(x);
+            this.size--;
+            this.min = this.buckets[0]; // every other bucket holds larger keys
+        }
+
+       /**
+        * public void decreaseKey(Node x, int delta)
+        *
+        * Decreases the key of the node x by a non-negative value delta, moving x to the bucket of its new key.
+        * Throws IllegalArgumentException if delta is negative or the new key would be smaller than getLastMin(),
+        * and IllegalStateException if x is not in a heap; the heap is left unchanged.
+        *
+        * Complexity: O(1)
+        */
+        public void decreaseKey(Node x, int delta) {
+            checkInHeap(x);
+            if (delta < 0) {
+                throw new IllegalArgumentException("delta must be non-negative: " + delta);
+            }
+            if ((long) x.key - this.last < delta) {
+                throw new IllegalArgumentException("key " + x.key + " - " + delta
+                        + " is below the last extracted key " + this.last);
+            }
+            x.key -= delta;
+            int i = bucketOf(x.key, this.last);
+            if (i != x.bucket) {
+                this.remove(x);
+                this.add(x);
+            }
+            if (this.min != null && x.key < this.min.key) {
+                this.min = x;
+            }
+        }
+
+       /**
+        * public void delete(Node x)
+        *
+        * Deletes the node x from the heap. Unlike deleteMin it does not change the last extracted key.
+        * Throws IllegalStateException if x is not in a heap, so deleting a node twice leaves the size intact.
+        * It is assumed that a node in a heap belongs to this one.
+        *
+        * Complexity: O(1)
+        */
+        public void delete(Node x) {
+            checkInHeap(x);
+            this.remove(x);
+            this.size--;
+            if (x == this.min) {
+                this.min = null;
+            }
+        }
+
+        private static void checkInHeap(Node x) {
+            if (!x.isInHeap()) {
+                throw new IllegalStateException("node is not in a heap");
+            }
+        }
+
+        private void checkMonotone(int key) {
+            if (key < this.last) {
+                throw new IllegalArgumentException("key " + key + " is below the last extracted key " + this.last);
+            }
+        }
+
+        private static int bucketOf(int key, int last) {
+            return 32 - Integer.numberOfLeadingZeros(key ^ last);
+        }
+
+        /** Appends x to the bucket of its key. */
+        private void add(Node x) {
+            int i = bucketOf(x.key, this.last);
+            x.bucket = i;
+            Node head = this.buckets[i];
+            if (head == null) {
+                x.next = x;
+                x.prev = x;
+                this.buckets[i] = x;
+                this.occupied |= 1L << i;
+            }
+            else {
+                x.next = head;
+                x.prev = head.prev;
+                head.prev.next = x;
+                head.prev = x;
+            }
+        }
+
+        /** Unlinks x from its bucket and marks it as out of the heap. */
+        private void remove(Node x) {
+            int i = x.bucket;
+            if (x.next == x) {
+                this.buckets[i] = null;
+                this.occupied &= ~(1L << i);
+            }
+            else {
+                x.prev.next = x.next;
+                x.next.prev = x.prev;
+                if (this.buckets[i] == x) {
+                    this.buckets[i] = x.next;
+                }
+            }
+            x.next = x;
+            x.prev = x;
+            x.bucket = -1;
+        }
+
+       /**
+        * public static final class Node
+        *
+        * A handle to a key in a RadixHeap.
+        */
+        public static final class Node {
+            private int key;
+            private final int value;
+            private int bucket = -1; // -1 when not in a heap
+            private Node next;
+            private Node prev;
+
+            private Node(int key, int value) {
+                this.key = key;
+                this.value = value;
+            }
+
+            public int getKey() {
+                return this.key;
+            }
+
+            public int getValue() {
+                return this.value;
+            }
+
+           /**
+            * public boolean isInHeap()
+            *
+            * Returns true if and only if the node was inserted and not removed since.
+            */
+            public boolean isInHeap() {
+                return this.bucket >= 0;
+            }
+        }
+    }
+
+   /**
+    * public static class IndexedRadixHeap
+    *
+    * RadixHeap behind the IndexedIntHeap interface, with the id as the node's value and nodeOf[id] mapping back.
+    * It accepts only monotone use: insert and decreaseKey throw IllegalArgumentException below the last key
+    * taken by deleteMin, which an emptied heap still remembers, so every run needs a fresh heap.
+    * GraphAlgorithms.dijkstra and astar with a consistent bound are monotone; prim is not and rejects this heap
+    * (isMonotone() returns true).
+    */
+    public static class IndexedRadixHeap implements IndexedIntHeap {
+
+        private final RadixHeap heap = new RadixHeap();
+        private final RadixHeap.Node[] nodeOf; // id -> node, null if the id is not in the heap
+
+       /**
+        * Constructor of IndexedRadixHeap!
+        *
+        * public IndexedRadixHeap(int capacity)
+        *
+        * Initializing an empty heap for the IDs 0..capacity-1.
+        *
+        * Complexity: O(capacity)
+        */
+        public IndexedRadixHeap(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+            }
+            this.nodeOf = new RadixHeap.Node[capacity];
+        }
+
+        private RadixHeap.Node nodeOf(int id) {
+            if (id < 0 || id >= this.nodeOf.length) {
+                throw new IllegalArgumentException("id " + id + " is out of range [0, " + this.nodeOf.length + ")");
+            }
+            return this.nodeOf[id];
+        }
+
+        private RadixHeap.Node checkInHeap(int id) {
+            RadixHeap.Node x = nodeOf(id);
+            if (x == null) {
+                throw new IllegalArgumentException("id " + id + " is not in the heap");
+            }
+            return x;
+        }
+
+        @Override
+        public void insert(int id, int key) {
+            if (nodeOf(id) != null) {
+                throw new IllegalArgumentException("id " + id + " is already in the heap");
+            }
+            this.nodeOf[id] = this.heap.insert(key, id);
+        }
+
+        @Override
+        public void decreaseKey(int id, int newKey) {
+            RadixHeap.Node x = checkInHeap(id);
+            if (newKey > x.getKey()) {
+                throw new IllegalArgumentException("new key " + newKey + " is greater than current key " + x.getKey());
+            }
+            this.heap.decreaseKey(x, x.getKey() - newKey);
+        }
+
+        @Override
+        public boolean contains(int id) {
+            return nodeOf(id) != null;
+        }
+
+        @Override
+        public int keyOf(int id) {
+            return checkInHeap(id).getKey();
+        }
+
+        @Override
+        public int minId() {
+            RadixHeap.Node x = this.heap.findMin();
+            return x == null ? NONE : x.getValue();
+        }
+
+        @Override
+        public int deleteMin() {
+            RadixHeap.Node x = this.heap.findMin();
+            if (x == null) {
+                return NONE;
+            }
+            this.heap.deleteMin();
+            this.nodeOf[x.getValue()] = null;
+            return x.getValue();
+        }
+
+        @Override
+        public int size() {
+            return this.heap.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.heap.isEmpty();
+        }
+
+        @Override
+        public int capacity() {
+            return this.nodeOf.length;
+        }
+
+        @Override
+        public boolean isMonotone() {
+            return true;
+        }
+
+       /**
+        * public int getLastMin()
+        *
+        * Returns the key last taken by deleteMin, the smallest key insert and decreaseKey accept.
+        */
+        public int getLastMin() {
+            return this.heap.getLastMin();
+        }
+    }
+
+   /**
+    * public static class PairingHeap
+    *
+    * A pairing heap over integers behind the MeldableHeap interface: a single heap-ordered tree whose nodes keep
+    * their children in a doubly linked list. insert, meld and decreaseKey link one tree to the root in O(1);
+    * deleteMin merges the root's children with the two-pass pairing, O(log(n)) amortized. Its decreaseKey has
+    * no O(1) amortized bound, but with far less bookkeeping per node than a Fibonacci heap it often wins in practice.
+    */
+    public static class PairingHeap implements MeldableHeap<PairingHeap, PairingHeap.Node> {
+
+        private Node root;
+        private int size;
+
+        private int countLinks;
+
+        @Override
+        public Node insert(int key) {
+            Node x = new Node(key);
+            x.inHeap = true;
+            this.root = this.root == null ? x : this.link(this.root, x);
+            this.size++;
+            return x;
+        }
+
+        @Override
+        public Node findMin() {
+            return this.root;
+        }
+
+        @Override
+        public void deleteMin() {
+            if (this.root == null) {
+                return;
+            }
+            Node x = this.root;
+            this.root = this.mergePairs(x.child);
+            x.child = null;
+            x.inHeap = false;
+            this.size--;
+        }
+
+        @Override
+        public void decreaseKey(Node x, int delta) {
+            checkDelta(delta);
+            checkInHeap(x);
+            x.key -= delta;
+            if (x != this.root) {
+                this.cut(x);
+                this.root = this.link(this.root, x);
+            }
+        }
+
+        @Override
+        public void delete(Node x) {
+            checkInHeap(x);
+            if (x == this.root) {
+                this.deleteMin();
+                return;
+            }
+            this.cut(x);
+            Node rest = this.mergePairs(x.child);
+            x.child = null;
+            x.inHeap = false;
+            if (rest != null) {
+                this.root = this.link(this.root, rest);
+            }
+            this.size--;
+        }
+
+        @Override
+        public void meld(PairingHeap heap2) {
+            if (heap2 == this) {
+                return;
+            }
+            if (heap2.root != null) {
+                this.root = this.root == null ? heap2.root : this.link(this.root, heap2.root);
+                this.size += heap2.size;
+                this.countLinks += heap2.countLinks;
+            }
+            heap2.root = null;
+            heap2.size = 0;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+       /**
+        * public int getCountLinks()
+        *
+        * Returns the number of links performed by this heap (and the heaps melded into it).
+        */
+        public int getCountLinks() {
+            return this.countLinks;
+        }
+
+        private static void checkInHeap(Node x) {
+            if (!x.inHeap) {
+                throw new IllegalStateException("node was deleted");
+            }
+        }
+
+        private static void checkDelta(int delta) {
+            if (delta < 0) {
+                throw new IllegalArgumentException("delta must be non-negative: " + delta);
+            }
+        }
+
+        /** Link the roots a and b (both without siblings); returns the new root. */
+        private Node link(Node a, Node b) {
+            this.countLinks++;
+            if (b.key < a.key) {
+                Node temp = a;
+                a = b;
+                b = temp;
+            }
+            Node c = a.child;
+            b.next = c;
+            if (c != null) {
+                c.prev = b;
+            }
+            b.prev = a;
+            a.child = b;
+            return a;
+        }
+
+        /** Detach the subtree of the non-root x from its parent. */
+        private void cut(Node x) {
+            Node p = x.prev;
+            if (p.child == x) {
+                p.child = x.next;
+            }
+            else {
+                p.next = x.next;
+            }
+            if (x.next != null) {
+                x.next.prev = p;
+            }
+            x.next = null;
+            x.prev = null;
+        }
+
+        /**
+         * Two-pass pairing of the sibling list starting at first: link pairs left to right, then link the results
+         * right to left. The first pass stacks its results through next, so no extra memory is needed.
+         */
+        private Node mergePairs(Node first) {
+            Node stack = null;
+            Node a = first;
+            while (a != null) {
+                Node b = a.next;
+                a.prev = null;
+                if (b == null) {
+                    a.next = stack;
+                    stack = a;
+                    break;
+                }
+                Node rest = b.next;
+                a.next = null;
+                b.next = null;
+                b.prev = null;
+                Node pair = this.link(a, b);
+                pair.next = stack;
+                stack = pair;
+                a = rest;
+            }
+            if (stack == null) {
+                return null;
+            }
+            Node res = stack;
+            stack = stack.next;
+            res.next = null;
+            while (stack != null) {
+                Node next = stack.next;
+                stack.next = null;
+                res = this.link(res, stack);
+                stack = next;
+            }
+            return res;
+        }
+
+       /**
+        * public static final class Node
+        *
+        * A handle to a key in a PairingHeap.
+        */
+        public static final class Node implements MeldableHeap.Node {
+            private int key;
+            private boolean inHeap;
+            private Node child; // leftmost child
+            private Node next;  // right sibling
+            private Node prev;  // left sibling, or the parent for a leftmost child
+
+            private Node(int key) {
+                this.key = key;
+            }
+
+            @Override
+            public int getKey() {
+                return this.key;
+            }
+
+           /**
+            * public boolean isInHeap()
+            *
+            * Returns true if and only if the node was inserted and not removed since.
+            */
+            public boolean isInHeap() {
+                return this.inHeap;
+            }
+        }
+    }
+
+   /**
+    * public static class RankPairingHeap
+    *
+    * A type-1 rank-pairing heap over integers behind the MeldableHeap interface (Haeupler, Sen and Tarjan).
+    * It is a circular list of half-trees: binary trees whose root has only a left child, and where every node's
+    * key is at most the keys in its left subtree. insert and meld add to the root list in O(1). deleteMin breaks
+    * the right spine of the minimum's left child into half-trees and links half-trees of equal rank in one pass,
+    * O(log(n)) amortized. decreaseKey cuts the node with its left subtree and lowers the ranks on the path above it,
+    * O(1) amortized like the Fibonacci heap, but with no cascading cuts: the type-1 rank rule (children rank
+    * differences of 1,1 or 0,i) keeps the trees balanced instead.
+    */
+    public static class RankPairingHeap implements MeldableHeap<RankPairingHeap, RankPairingHeap.Node> {
+
+        private Node min; // entry of the circular root list, linked through next
+        private int size;
+
+        private int countLinks;
+
+        private Node[] buckets = new Node[0]; // scratch space of deleteMin, by rank
+
+        @Override
+        public Node insert(int key) {
+            Node x = new Node(key);
+            x.inHeap = true;
+            this.addRoot(x);
+            this.size++;
+            return x;
+        }
+
+        @Override
+        public Node findMin() {
+            return this.min;
+        }
+
+        @Override
+        public void deleteMin() {
+            if (this.min == null) {
+                return;
+            }
+            Node x = this.min;
+            // The other roots and the right spine of x.left, each a half-tree, chained through next.
+            Node list = x.next == x ? null : x.next;
+            if (list != null) {
+                Node last = list;
+                while (last.next != x) {
+                    last = last.next;
+                }
+                last.next = null;
+            }
+            for (Node y = x.left; y != null; ) {
+                Node right = y.right;
+                y.right = null;
+                y.parent = null;
+                y.rank = rank(y.left) + 1;
+                y.next = list;
+                list = y;
+                y = right;
+            }
+            x.left = null;
+            x.next = null;
+            x.inHeap = false;
+            this.size--;
+            this.min = null;
+            // One pass: a half-tree meeting another of its rank is linked with it and leaves the buckets.
+            int maxRank = -1;
+            while (list != null) {
+                Node t = list;
+                list = list.next;
+                t.next = null;
+                if (t.rank >= this.buckets.length) {
+                    this.buckets = java.util.Arrays.copyOf(this.buckets, Math.max(2 * this.buckets.length, t.rank + 1));
+                }
+                Node other = this.buckets[t.rank];
+                if (other == null) {
+                    this.buckets[t.rank] = t;
+                    maxRank = Math.max(maxRank, t.rank);
+                }
+                else {
+                    this.buckets[t.rank] = null;
+                    this.addRoot(this.link(other, t));
+                }
+            }
+            for (int r = 0; r <= maxRank; r++) {
+                if (this.buckets[r] != null) {
+                    this.addRoot(this.buckets[r]);
+                    this.buckets[r] = null;
+                }
+            }
+        }
+
+        @Override
+        public void decreaseKey(Node x, int delta) {
+            checkDelta(delta);
+            checkInHeap(x);
+            x.key -= delta;
+            if (x.parent == null) { // a root
+                if (x.key < this.min.key) {
+                    this.min = x;
+                }
+                return;
+            }
+            Node p = x.parent;
+            Node y = x.right; // takes the place of x
+            if (p.left == x) {
+                p.left = y;
+            }
+            else {
+                p.right = y;
+            }
+            if (y != null) {
+                y.parent = p;
+            }
+            x.right = null;
+            x.parent = null;
+            x.rank = rank(x.left) + 1;
+            this.addRoot(x);
+            for (Node u = p; u != null; u = u.parent) { // ranks only go down, and stop as soon as one does not
+                if (u.parent == null) {
+                    u.rank = rank(u.left) + 1;
+                    break;
+                }
+                int r1 = rank(u.left);
+                int r2 = rank(u.right);
+                int r = r1 == r2 ? r1 + 1 : Math.max(r1, r2);
+                if (r >= u.rank) {
+                    break;
+                }
+                u.rank = r;
+            }
+        }
+
+       /**
+        * public void delete(Node x)
+        *
+        * Deletes the node x from the heap: x is cut to the root list as by decreaseKey, made the minimum, and
+        * removed by deleteMin, whose linking restores the real minimum. Keys are not changed.
+        *
+        * Complexity: O(log(n)) amortized
+        */
+        @Override
+        public void delete(Node x) {
+            checkInHeap(x);
+            if (x.parent != null) {
+                this.decreaseKey(x, 0);
+            }
+            this.min = x;
+            this.deleteMin();
+        }
+
+        @Override
+        public void meld(RankPairingHeap heap2) {
+            if (heap2 == this) {
+                return;
+            }
+            if (heap2.min != null) {
+                if (this.min == null) {
+                    this.min = heap2.min;
+                }
+                else {
+                    Node next = this.min.next;
+                    this.min.next = heap2.min.next;
+                    heap2.min.next = next;
+                    if (heap2.min.key < this.min.key) {
+                        this.min = heap2.min;
+                    }
+                }
+                this.size += heap2.size;
+                this.countLinks += heap2.countLinks;
+            }
+            heap2.min = null;
+            heap2.size = 0;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+       /**
+        * public int getCountLinks()
+        *
+        * Returns the number of links performed by this heap (and the heaps melded into it).
+        */
+        public int getCountLinks() {
+            return this.countLinks;
+        }
+
+        private static int rank(Node x) {
+            return x == null ? -1 : x.rank;
+        }
+
+        private static void checkInHeap(Node x) {
+            if (!x.inHeap) {
+                throw new IllegalStateException("node was deleted");
+            }
+        }
+
+        private static void checkDelta(int delta) {
+            if (delta < 0) {
+                throw new IllegalArgumentException("delta must be non-negative: " + delta);
+            }
+        }
+
+        /** Adds the half-tree rooted at x to the root list. */
+        private void addRoot(Node x) {
+            if (this.min == null) {
+                x.next = x;
+                this.min = x;
+                return;
+            }
+            x.next = this.min.next;
+            this.min.next = x;
+            if (x.key < this.min.key) {
+                this.min = x;
+            }
+        }
+
+        /** Link two half-trees of equal rank: the larger root becomes the left child of the smaller one. */
+        private Node link(Node a, Node b) {
+            this.countLinks++;
+            if (b.key < a.key) {
+                Node temp = a;
+                a = b;
+                b = temp;
+            }
+            b.right = a.left;
+            if (a.left != null) {
+                a.left.parent = b;
+            }
+            b.parent = a;
+            a.left = b;
+            a.rank++;
+            return a;
+        }
+
+       /**
+        * public static final class Node
+        *
+        * A handle to a key in a RankPairingHeap.
+        */
+        public static final class Node implements MeldableHeap.Node {
+            private int key;
+            private int rank;
+            private boolean inHeap;
+            private Node left;
+            private Node right;
+            private Node parent;
+            private Node next; // root list, only used while the node is a root
+
+            private Node(int key) {
+                this.key = key;
+            }
+
+            @Override
+            public int getKey() {
+                return this.key;
+            }
+
+            public int getRank() {
+                return this.rank;
+            }
+
+           /**
+            * public boolean isInHeap()
+            *
+            * Returns true if and only if the node was inserted and not removed since.
+            */
+            public boolean isInHeap() {
+                return this.inHeap;
+            }
+        }
+    }
+
+   /**
+    * public static class HollowHeap
+    *
+    * A hollow heap over integers behind the MeldableHeap interface (Hansen, Kaplan, Tarjan and Zwick), in its
+    * one-tree form: a single heap-ordered DAG. An Item is the handle of a key and points to the node that currently
+    * holds it. decreaseKey never moves a subtree: it puts the item in a new node linked to the root and leaves the
+    * old node hollow, with the new node as its second parent. delete only empties the item's node. The hollow nodes
+    * are removed when they become roots, by deleteMin, which links the remaining trees by rank.
+    * insert, meld and decreaseKey are O(1) worst case; deleteMin and delete are O(log(n)) amortized.
+    */
+    public static class HollowHeap implements MeldableHeap<HollowHeap, HollowHeap.Item> {
+
+        private Cell root;
+        private int size;
+
+        private int countLinks;
+
+        private Cell[] buckets = new Cell[0]; // scratch space of deleteMin, by rank
+
+        @Override
+        public Item insert(int key) {
+            Item e = new Item(key);
+            Cell u = new Cell(e, key);
+            this.root = this.root == null ? u : this.link(this.root, u);
+            this.size++;
+            return e;
+        }
+
+        @Override
+        public Item findMin() {
+            return this.root == null ? null : this.root.item;
+        }
+
+        @Override
+        public void deleteMin() {
+            if (this.root != null) {
+                this.delete(this.root.item);
+            }
+        }
+
+        @Override
+        public void decreaseKey(Item e, int delta) {
+            checkDelta(delta);
+            checkInHeap(e);
+            Cell u = e.cell;
+            e.key -= delta;
+            if (u == this.root) {
+                u.key = e.key;
+                return;
+            }
+            Cell v = new Cell(e, e.key); // takes over e, u becomes hollow
+            u.item = null;
+            if (u.rank > 2) {
+                v.rank = u.rank - 2;
+            }
+            v.child = u;
+            u.secondParent = v;
+            this.root = this.link(v, this.root);
+        }
+
+        @Override
+        public void delete(Item e) {
+            checkInHeap(e);
+            Cell u = e.cell;
+            u.item = null;
+            e.cell = null;
+            this.size--;
+            if (u != this.root) {
+                return;
+            }
+            // Take apart every hollow root: its full children become roots and are linked by rank, its hollow
+            // children lose a parent and are taken apart too once they have none left.
+            int maxRank = -1;
+            Cell h = this.root;
+            h.next = null;
+            while (h != null) {
+                Cell w = h.child;
+                Cell v = h;
+                h = h.next;
+                while (w != null) {
+                    Cell x = w;
+                    w = w.next;
+                    if (x.item == null) {
+                        if (x.secondParent == null) {
+                            x.next = h;
+                            h = x;
+                        }
+                        else {
+                            if (x.secondParent == v) { // x is the last child of v; its next is in its other list
+                                w = null;
+                            }
+                            else {
+                                x.next = null;
+                            }
+                            x.secondParent = null;
+                        }
+                    }
+                    else {
+                        while (x.rank < this.buckets.length && this.buckets[x.rank] != null) {
+                            Cell y = this.buckets[x.rank];
+                            this.buckets[x.rank] = null;
+                            x = this.link(x, y);
+                            x.rank++;
+                        }
+                        if (x.rank >= this.buckets.length) {
+                            this.buckets = java.util.Arrays.copyOf(this.buckets, Math.max(2 * this.buckets.length, x.rank + 1));
+                        }
+                        this.buckets[x.rank] = x;
+                        maxRank = Math.max(maxRank, x.rank);
+                    }
+                }
+                v.child = null;
+                v.next = null;
+            }
+            this.root = null;
+            for (int r = 0; r <= maxRank; r++) {
+                if (this.buckets[r] != null) {
+                    this.root = this.root == null ? this.buckets[r] : this.link(this.root, this.buckets[r]);
+                    this.buckets[r] = null;
+                }
+            }
+        }
+
+        @Override
+        public void meld(HollowHeap heap2) {
+            if (heap2 == this) {
+                return;
+            }
+            if (heap2.root != null) {
+                this.root = this.root == null ? heap2.root : this.link(this.root, heap2.root);
+                this.size += heap2.size;
+                this.countLinks += heap2.countLinks;
+            }
+            heap2.root = null;
+            heap2.size = 0;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+       /**
+        * public int getCountLinks()
+        *
+        * Returns the number of links performed by this heap (and the heaps melded into it).
+        */
+        public int getCountLinks() {
+            return this.countLinks;
+        }
+
+        private static void checkInHeap(Item e) {
+            if (e.cell == null) {
+                throw new IllegalStateException("node was deleted");
+            }
+        }
+
+        private static void checkDelta(int delta) {
+            if (delta < 0) {
+                throw new IllegalArgumentException("delta must be non-negative: " + delta);
+            }
+        }
+
+        /** Link the roots v and w: the one with the larger key becomes the first child of the other. */
+        private Cell link(Cell v, Cell w) {
+            this.countLinks++;
+            if (v.key >= w.key) {
+                v.next = w.child;
+                w.child = v;
+                return w;
+            }
+            w.next = v.child;
+            v.child = w;
+            return v;
+        }
+
+       /**
+        * public static final class Item
+        *
+        * A handle to a key in a HollowHeap. It survives decreaseKey, which moves it to a new node.
+        */
+        public static final class Item implements MeldableHeap.Node {
+            private int key;
+            private Cell cell; // null once the item was removed
+
+            private Item(int key) {
+                this.key = key;
+            }
+
+            @Override
+            public int getKey() {
+                return this.key;
+            }
+
+           /**
+            * public boolean isInHeap()
+            *
+            * Returns true if and only if the item was inserted and not removed since.
+            */
+            public boolean isInHeap() {
+                return this.cell != null;
+            }
+        }
+
+        /** A node of the DAG; hollow when item is null. */
+        private static final class Cell {
+            private Item item;
+            private int key;
+            private int rank;
+            private Cell child;        // first child
+            private Cell next;         // next sibling in the first parent's list
+            private Cell secondParent; // set on a hollow node whose item moved by decreaseKey
+
+            private Cell(Item item, int key) {
+                this.item = item;
+                this.key = key;
+                item.cell = this;
+            }
+        }
+    }
+
+   /**
+    * public static class OffHeapFibonacciHeap
+    *
+    * A Fibonacci Heap over integers whose node records live outside the Java heap, in native memory chunks.
+    * Nodes are reachable through long handles, and size and counters are longs, so the heap is not bounded
+    * by Integer.MAX_VALUE nodes nor traced by the garbage collector.
+    *
+    * Record layout (48 bytes): key, rank, parent, child, next, prev, mark, live.
+    * The chunks are allocated and freed explicitly (this JDK has no stable java.lang.foreign, so through
+    * sun.misc.Unsafe, looked up reflectively): close() returns every byte to the operating system at once,
+    * without waiting for a garbage collection, and the heap is not limited by -XX:MaxDirectMemorySize.
+    * The heap must be closed when no longer needed; any use after close throws IllegalStateException,
+    * a handle that was never handed out throws IllegalArgumentException instead of touching memory, and a handle
+    * whose node was deleted throws IllegalStateException until its record is reused by a later insert.
+    */
+    public static class OffHeapFibonacciHeap implements AutoCloseable {
+
+        public static final long NONE = -1L;
+
+        private static final int RECORD_BYTES = 48;
+        private static final int KEY = 0;
+        private static final int RANK = 4;
+        private static final int PARENT = 8;
+        private static final int CHILD = 16;
+        private static final int NEXT = 24;
+        private static final int PREV = 32;
+        private static final int MARK = 40;
+        private static final int LIVE = 44; // 1 while the record holds a node, 0 once it is on the free list
+
+        private static final int CHUNK_SHIFT = 16; // 65536 records (3 MiB) per chunk
+        private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+        private static final java.lang.invoke.MethodHandle ALLOCATE;
+        private static final java.lang.invoke.MethodHandle FREE;
+        private static final java.lang.invoke.MethodHandle GET_INT;
+        private static final java.lang.invoke.MethodHandle PUT_INT;
+        private static final java.lang.invoke.MethodHandle GET_LONG;
+        private static final java.lang.invoke.MethodHandle PUT_LONG;
+
+        static {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                java.lang.reflect.Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                Object unsafe = field.get(null);
+                java.lang.invoke.MethodHandles.Lookup lookup = java.lang.invoke.MethodHandles.lookup();
+                Class<?> l = long.class;
+                Class<?> i = int.class;
+                Class<?> v = void.class;
+                ALLOCATE = lookup.findVirtual(unsafeClass, "allocateMemory", java.lang.invoke.MethodType.methodType(l, l)).bindTo(unsafe);
+                FREE = lookup.findVirtual(unsafeClass, "freeMemory", java.lang.invoke.MethodType.methodType(v, l)).bindTo(unsafe);
+                GET_INT = lookup.findVirtual(unsafeClass, "getInt", java.lang.invoke.MethodType.methodType(i, l)).bindTo(unsafe);
+                PUT_INT = lookup.findVirtual(unsafeClass, "putInt", java.lang.invoke.MethodType.methodType(v, l, i)).bindTo(unsafe);
+                GET_LONG = lookup.findVirtual(unsafeClass, "getLong", java.lang.invoke.MethodType.methodType(l, l)).bindTo(unsafe);
+                PUT_LONG = lookup.findVirtual(unsafeClass, "putLong", java.lang.invoke.MethodType.methodType(v, l, l)).bindTo(unsafe);
+            }
+            catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long[] chunks; // native addresses, null once closed
+        private int numChunks;
+
+        private long used;     // number of records ever handed out
+        private long freeList; // released records, chained through NEXT
+
+        private long min;
+        private long first;
+
+        private long numTrees;
+        private long size;
+        private long countMarkNodes;
+
+        private long countLinks;
+        private long countCuts;
+
+        private long[] buckets; // consolidation buckets, grown only when the rank bound grows
+
+       /**
+        * Constructor of OffHeapFibonacciHeap!
+        *
+        * public OffHeapFibonacciHeap()
+        *
+        * Initializing an empty heap. Memory is reserved chunk by chunk as nodes are inserted.
+        *
+        * Complexity: O(1)
+        */
+        public OffHeapFibonacciHeap() {
+            this.chunks = new long[4];
+            this.numChunks = 0;
+            this.buckets = new long[0];
+            this.used = 0;
+            this.freeList = NONE;
+            this.min = NONE;
+            this.first = NONE;
+            this.numTrees = 0;
+            this.size = 0;
+            this.countMarkNodes = 0;
+        }
+
+        private long address(long h) {
+            return this.chunks[(int) (h >>> CHUNK_SHIFT)] + (h & CHUNK_MASK) * RECORD_BYTES;
+        }
+
+        private static int getInt(long address) {
+            try {
+                return (int) GET_INT.invokeExact(address);
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void putInt(long address, int value) {
+            try {
+                PUT_INT.invokeExact(address, value);
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static long getLong(long address) {
+            try {
+                return (long) GET_LONG.invokeExact(address);
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void putLong(long address, long value) {
+            try {
+                PUT_LONG.invokeExact(address, value);
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private int key(long h) {
+            return getInt(address(h) + KEY);
+        }
+
+        private void setKey(long h, int k) {
+            putInt(address(h) + KEY, k);
+        }
+
+        private int rank(long h) {
+            return getInt(address(h) + RANK);
+        }
+
+        private void setRank(long h, int r) {
+            putInt(address(h) + RANK, r);
+        }
+
+        private boolean mark(long h) {
+            return getInt(address(h) + MARK) != 0;
+        }
+
+        private void setMark(long h, boolean m) {
+            putInt(address(h) + MARK, m ? 1 : 0);
+        }
+
+        private long parent(long h) {
+            return getLong(address(h) + PARENT);
+        }
+
+        private void setParent(long h, long p) {
+            putLong(address(h) + PARENT, p);
+        }
+
+        private long child(long h) {
+            return getLong(address(h) + CHILD);
+        }
+
+        private void setChild(long h, long c) {
+            putLong(address(h) + CHILD, c);
+        }
+
+        private long next(long h) {
+            return getLong(address(h) + NEXT);
+        }
+
+        private void setNext(long h, long n) {
+            putLong(address(h) + NEXT, n);
+        }
+
+        private long prev(long h) {
+            return getLong(address(h) + PREV);
+        }
+
+        private void setPrev(long h, long p) {
+            putLong(address(h) + PREV, p);
+        }
+
+        private void checkOpen() {
+            if (this.chunks == null) {
+                throw new IllegalStateException("heap is closed");
+            }
+        }
+
+        /** Raw memory access has no bounds check of its own, so a handle from a caller is checked first. */
+        private void checkHandle(long h) {
+            checkOpen();
+            if (h < 0 || h >= this.used) {
+                throw new IllegalArgumentException("not a node handle of this heap: " + h);
+            }
+            if (getInt(address(h) + LIVE) == 0) { // its NEXT is a free-list link now, it must not be relinked
+                throw new IllegalStateException("node was deleted");
+            }
+        }
+
+       /**
+        * private long allocate()
+        *
+        * Return a free record, reusing released records first and reserving a new chunk when needed.
+        *
+        * Complexity: O(1) amortized
+        */
+        private long allocate() {
+            if (this.freeList != NONE) {
+                long h = this.freeList;
+                this.freeList = next(h);
+                return h;
+            }
+            long h = this.used;
+            int c = (int) (h >>> CHUNK_SHIFT);
+            if (c == this.numChunks) {
+                if (c == this.chunks.length) {
+                    this.chunks = java.util.Arrays.copyOf(this.chunks, 2 * c);
+                }
+                try {
+                    this.chunks[c] = (long) ALLOCATE.invokeExact((long) RECORD_BYTES << CHUNK_SHIFT);
+                }
+                catch (OutOfMemoryError e) {
+                    throw e;
+                }
+                catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+                this.numChunks++;
+            }
+            this.used++;
+            return h;
+        }
+
+       /**
+        * private void release(long h)
+        *
+        * Return record h to the free list.
+        *
+        * Complexity: O(1)
+        */
+        private void release(long h) {
+            putInt(address(h) + LIVE, 0);
+            setNext(h, this.freeList);
+            this.freeList = h;
+        }
+
+       /**
+        * private void insertBefore(long h, long first, long last)
+        *
+        * Add the chain first..last as left siblings of node h.
+        *
+        * Complexity: O(1)
+        */
+        private void insertBefore(long h, long first, long last) {
+            long temp = prev(h);
+            setNext(last, h);
+            setPrev(h, last);
+            setNext(temp, first);
+            setPrev(first, temp);
+        }
+
+       /**
+        * private void addRoot(long h)
+        *
+        * Add the lone node h to the root list as the first tree and update min.
+        *
+        * Complexity: O(1)
+        */
+        private void addRoot(long h) {
+            if (this.first != NONE) {
+                insertBefore(this.first, h, h);
+            }
+            this.first = h;
+            this.numTrees++;
+            if (this.min == NONE || key(h) < key(this.min)) {
+                this.min = h;
+            }
+        }
+
+       /**
+        * public long insert(int key)
+        *
+        * Creates a node which contains the given key, and inserts it into the heap.
+        *
+        * Complexity: O(1) amortized
+        *
+        * Returns the handle of the newly created node.
+        */
+        public long insert(int key) {
+            checkOpen();
+            long h = allocate();
+            setKey(h, key);
+            setRank(h, 0);
+            setMark(h, false);
+            setParent(h, NONE);
+            setChild(h, NONE);
+            setNext(h, h);
+            setPrev(h, h);
+            putInt(address(h) + LIVE, 1);
+            addRoot(h);
+            this.size++;
+            return h;
+        }
+
+       /**
+        * public long findMin()
+        *
+        * Returns the handle of the node whose key is minimal, or NONE if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public long findMin() {
+            checkOpen();
+            return this.min;
+        }
+
+       /**
+        * public int getKey(long h)
+        *
+        * Returns the key of node h.
+        *
+        * Complexity: O(1)
+        */
+        public int getKey(long h) {
+            checkHandle(h);
+            return key(h);
+        }
+
+       /**
+        * public void deleteMin()
+        *
+        * Deletes the node containing the minimum key: its children become roots and the trees are consolidated.
+        *
+        * Complexity: O(log(n)) amortized
+        */
+        public void deleteMin() {
+            checkOpen();
+            if (this.size == 0) {
+                return;
+            }
+            long z = this.min;
+            if (this.size == 1) {
+                release(z);
+                this.min = NONE;
+                this.first = NONE;
+                this.numTrees = 0;
+                this.size = 0;
+                return;
+            }
+            long c = child(z);
+            if (c != NONE) {
+                long iter = c;
+                do {
+                    setParent(iter, NONE);
+                    if (mark(iter)) {
+                        setMark(iter, false);
+                        this.countMarkNodes--;
+                    }
+                    this.numTrees++;
+                    iter = next(iter);
+                } while (iter != c);
+                insertBefore(z, c, prev(c));
+            }
+            long n = next(z);
+            long p = prev(z);
+            setNext(p, n);
+            setPrev(n, p);
+            if (this.first == z) {
+                this.first = c != NONE ? c : n;
+            }
+            this.numTrees--;
+            this.size--;
+            release(z);
+            consolidate();
+        }
+
+       /**
+        * private long link(long a, long b)
+        *
+        * Hang the root with the bigger key as the left-most child of the other root.
+        *
+        * Complexity: O(1)
+        *
+        * Returns the handle of the root with the smaller key.
+        */
+        private long link(long a, long b) {
+            if (key(b) < key(a)) {
+                long temp = a;
+                a = b;
+                b = temp;
+            }
+            if (mark(a)) {
+                setMark(a, false);
+                this.countMarkNodes--;
+            }
+            long c = child(a);
+            setChild(a, b);
+            setParent(b, a);
+            if (c == NONE) {
+                setNext(b, b);
+                setPrev(b, b);
+            }
+            else {
+                insertBefore(c, b, b);
+            }
+            setRank(a, rank(a) + 1);
+            this.countLinks++;
+            return a;
+        }
+
+       /**
+        * private void consolidate()
+        *
+        * Link trees of equal rank until every rank appears at most once, using the buckets method.
+        *
+        * Complexity: O(k + log(n)), k - number of trees in heap
+        */
+        private void consolidate() {
+            // rank <= log_phi(n) < 2 * bitLength(n)
+            int bound = 2 * (64 - Long.numberOfLeadingZeros(this.size)) + 1;
+            if (this.buckets.length < bound) {
+                this.buckets = new long[bound];
+                java.util.Arrays.fill(this.buckets, NONE);
+            }
+            long curr = this.first;
+            int maxRank = -1;
+            long count = this.numTrees;
+            for (long i = 0; i < count; i++) {
+                long t = curr;
+                curr = next(curr);
+                setNext(t, t);
+                setPrev(t, t);
+                int r = rank(t);
+                while (this.buckets[r] != NONE) {
+                    t = link(this.buckets[r], t);
+                    this.numTrees--;
+                    this.buckets[r] = NONE;
+                    r++;
+                }
+                this.buckets[r] = t;
+                if (r > maxRank) {
+                    maxRank = r;
+                }
+            }
+            this.min = NONE;
+            this.first = NONE;
+            for (int r = 0; r <= maxRank; r++) {
+                long t = this.buckets[r];
+                if (t != NONE) {
+                    this.buckets[r] = NONE;
+                    if (this.first == NONE) {
+                        this.first = t;
+                    }
+                    else {
+                        insertBefore(this.first, t, t);
+                    }
+                    if (this.min == NONE || key(t) < key(this.min)) {
+                        this.min = t;
+                    }
+                }
+            }
+        }
+
+       /**
+        * public void decreaseKey(long h, int delta)
+        *
+        * Decreases the key of node h by a non-negative value delta, applying cascading cuts if needed.
+        *
+        * Complexity: O(1) amortized
+        */
+        public void decreaseKey(long h, int delta) {
+            checkHandle(h);
+            setKey(h, key(h) - delta);
+            long p = parent(h);
+            if (p != NONE && key(h) < key(p)) {
+                cascadingCut(h, p);
+            }
+            if (key(h) < key(this.min)) {
+                this.min = h;
+            }
+        }
+
+       /**
+        * public void delete(long h)
+        *
+        * Deletes node h from the heap. It is assumed that h indeed belongs to the heap.
+        *
+        * Complexity: O(log(n)) amortized
+        */
+        public void delete(long h) {
+            checkHandle(h);
+            long p = parent(h);
+            if (p != NONE) {
+                cascadingCut(h, p);
+            }
+            this.min = h;
+            deleteMin();
+        }
+
+       /**
+        * private void cascadingCut(long x, long xParent)
+        *
+        * Cut x from xParent and keep cutting up the tree as long as the parent was already marked.
+        *
+        * Complexity: O(1) amortized
+        */
+        private void cascadingCut(long x, long xParent) {
+            while (true) {
+                cut(x, xParent);
+                this.countCuts++;
+                long grandParent = parent(xParent);
+                if (grandParent == NONE) {
+                    return;
+                }
+                if (!mark(xParent)) {
+                    setMark(xParent, true);
+                    this.countMarkNodes++;
+                    return;
+                }
+                x = xParent;
+                xParent = grandParent;
+            }
+        }
+
+       /**
+        * private void cut(long x, long xParent)
+        *
+        * Cuts node x from its parent xParent and adds it as a new tree.
+        *
+        * Complexity: O(1)
+        */
+        private void cut(long x, long xParent) {
+            setRank(xParent, rank(xParent) - 1);
+            long n = next(x);
+            if (n == x) {
+                setChild(xParent, NONE);
+            }
+            else {
+                long p = prev(x);
+                setNext(p, n);
+                setPrev(n, p);
+                if (child(xParent) == x) {
+                    setChild(xParent, n);
+                }
+            }
+            if (mark(x)) {
+                setMark(x, false);
+                this.countMarkNodes--;
+            }
+            setParent(x, NONE);
+            setNext(x, x);
+            setPrev(x, x);
+            addRoot(x);
+        }
+
+       /**
+        * public long size()
+        *
+        * Returns the number of elements in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public long size() {
+            return this.size;
+        }
+
+       /**
+        * public boolean isEmpty()
+        *
+        * Returns true if and only if the heap is empty.
+        *
+        * Complexity: O(1)
+        */
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+       /**
+        * public long getNumTrees()
+        *
+        * Return the number of trees in the heap.
+        *
+        * Complexity: O(1)
+        */
+        public long getNumTrees() {
+            return this.numTrees;
+        }
+
+       /**
+        * public long potential()
+        *
+        * Returns the current potential of the heap: #trees + 2*#marked.
+        *
+        * Complexity: O(1)
+        */
+        public long potential() {
+            return this.numTrees + 2 * this.countMarkNodes;
+        }
+
+       /**
+        * public long totalLinks()
+        *
+        * Returns the number of link operations made by this heap.
+        *
+        * Complexity: O(1)
+        */
+        public long totalLinks() {
+            return this.countLinks;
+        }
+
+       /**
+        * public long totalCuts()
+        *
+        * Returns the number of cut operations made by this heap.
+        *
+        * Complexity: O(1)
+        */
+        public long totalCuts() {
+            return this.countCuts;
+        }
+
+       /**
+        * public long reservedBytes()
+        *
+        * Returns the number of bytes of native memory currently reserved for node records.
+        *
+        * Complexity: O(1)
+        */
+        public long reservedBytes() {
+            return (long) this.numChunks * (RECORD_BYTES << CHUNK_SHIFT);
+        }
+
+       /**
+        * public void close()
+        *
+        * Frees every memory chunk immediately and invalidates all handles. Idempotent.
+        *
+        * Complexity: O(number of chunks)
+        */
+        @Override
+        public void close() {
+            if (this.chunks == null) {
+                return;
+            }
+            long[] chunks = this.chunks;
+            this.chunks = null; // closed even if a free below fails
+            for (int c = 0; c < this.numChunks; c++) {
+                try {
+                    FREE.invokeExact(chunks[c]);
+                }
+                catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            this.numChunks = 0;
+            this.used = 0;
+            this.freeList = NONE;
+            this.min = NONE;
+            this.first = NONE;
+            this.numTrees = 0;
+            this.size = 0;
+            this.countMarkNodes = 0;
+        }
+    }
+
+   /**
+    * public static class Conformance
+    *
+    * Runnable behavioral checks, run as:
+    *
+    *     java FibonacciHeap$Conformance [seed]
+    *
+    * Every check drives a heap with random operation sequences and compares each answer with a java.util
+    * reference; the first disagreement throws AssertionError with the seed, sequence and step to replay it.
+    * The same sequences run on every heap sharing an interface, so the engines are held to one behavior.
+    */
+    public static class Conformance {
+
+        private static final int SEQUENCES = 300;
+        private static final int MAX_OPS = 600;
+
+        private Conformance() {
+        }
+
+       /**
+        * public static void main(String[] args)
+        *
+        * Runs every check with the seed given as argument (default 1).
+        */
+        public static void main(String[] args) {
+            long seed = args.length == 0 ? 1 : Long.parseLong(args[0]);
+            checkKeyedHeap("LongFibonacciHeap", LongAdapter::new, seed);
+            checkKeyedHeap("DoubleFibonacciHeap", DoubleAdapter::new, seed);
+            checkDrainAndSplit("LongFibonacciHeap", LongAdapter::new, seed);
+            checkDrainAndSplit("DoubleFibonacciHeap", DoubleAdapter::new, seed);
+            checkDoubleExtras();
+            checkMeldableHeap("FibonacciHeap", FibonacciHeap::new, seed);
+            checkMeldableHeap("PairingHeap", PairingHeap::new, seed);
+            checkMeldableHeap("RankPairingHeap", RankPairingHeap::new, seed);
+            checkMeldableHeap("HollowHeap", HollowHeap::new, seed);
+            System.out.println("all conformance checks passed");
+        }
+
+        private static void check(boolean condition, String what, Object... context) {
+            if (!condition) {
+                throw new AssertionError(what + " " + java.util.Arrays.toString(context));
+            }
+        }
+
+        /** The operations LongFibonacciHeap and DoubleFibonacciHeap share, with long keys and an int id payload. */
+        private interface KeyedHeap<N> {
+            N insert(long key, int id);
+
+            N findMin();
+
+            N deleteMin();
+
+            void decreaseKey(N x, long newKey);
+
+            void delete(N x);
+
+            void meld(KeyedHeap<N> heap2);
+
+            int drainUpTo(long threshold, java.util.function.Consumer<? super N> sink);
+
+            int pollMin(int k, java.util.function.Consumer<? super N> sink);
+
+            KeyedHeap<N> splitOffTree(); // null if the heap is empty
+
+            long getNumTrees();
+
+            long keyOf(N x);
+
+            int idOf(N x);
+
+            boolean isInHeap(N x);
+
+            long size();
+        }
+
+        private static final class LongAdapter implements KeyedHeap<LongFibonacciHeap.Node<Void>> {
+            private final LongFibonacciHeap<Void> heap = new LongFibonacciHeap<>();
+
+            public LongFibonacciHeap.Node<Void> insert(long key, int id) {
+                return this.heap.insert(key, id);
+            }
+
+            public LongFibonacciHeap.Node<Void> findMin() {
+                return this.heap.findMin();
+            }
+
+            public LongFibonacciHeap.Node<Void> deleteMin() {
+                return this.heap.deleteMin();
+            }
+
+            public void decreaseKey(LongFibonacciHeap.Node<Void> x, long newKey) {
+                this.heap.decreaseKey(x, newKey);
+            }
+
+            public void delete(LongFibonacciHeap.Node<Void> x) {
+                this.heap.delete(x);
+            }
+
+            public void meld(KeyedHeap<LongFibonacciHeap.Node<Void>> heap2) {
+                this.heap.meld(((LongAdapter) heap2).heap);
+            }
+
+            public int drainUpTo(long threshold, java.util.function.Consumer<? super LongFibonacciHeap.Node<Void>> sink) {
+                return this.heap.drainUpTo(threshold, sink);
+            }
+
+            public int pollMin(int k, java.util.function.Consumer<? super LongFibonacciHeap.Node<Void>> sink) {
+                return this.heap.pollMin(k, sink);
+            }
+
+            public KeyedHeap<LongFibonacciHeap.Node<Void>> splitOffTree() {
+                LongFibonacciHeap<Void> tree = this.heap.splitOffTree();
+                if (tree == null) {
+                    return null;
+                }
+                LongAdapter res = new LongAdapter();
+                res.heap.meld(tree);
+                return res;
+            }
+
+            public long getNumTrees() {
+                return this.heap.getNumTrees();
+            }
+
+            public long keyOf(LongFibonacciHeap.Node<Void> x) {
+                return x.getKey();
+            }
+
+            public int idOf(LongFibonacciHeap.Node<Void> x) {
+                return x.getIntValue();
+            }
+
+            public boolean isInHeap(LongFibonacciHeap.Node<Void> x) {
+                return x.isInHeap();
+            }
+
+            public long size() {
+                return this.heap.size();
+            }
+        }
+
+        /** Keys stay below 2^53, so the conversion to double and back is exact. */
+        private static final class DoubleAdapter implements KeyedHeap<DoubleFibonacciHeap.Node<Void>> {
+            private final DoubleFibonacciHeap<Void> heap = new DoubleFibonacciHeap<>();
+
+            public DoubleFibonacciHeap.Node<Void> insert(long key, int id) {
+                return this.heap.insert((double) key, id);
+            }
+
+            public DoubleFibonacciHeap.Node<Void> findMin() {
+                return this.heap.findMin();
+            }
+
+            public DoubleFibonacciHeap.Node<Void> deleteMin() {
+                return this.heap.deleteMin();
+            }
+
+            public void decreaseKey(DoubleFibonacciHeap.Node<Void> x, long newKey) {
+                this.heap.decreaseKey(x, (double) newKey);
+            }
+
+            public void delete(DoubleFibonacciHeap.Node<Void> x) {
+                this.heap.delete(x);
+            }
+
+            public void meld(KeyedHeap<DoubleFibonacciHeap.Node<Void>> heap2) {
+                this.heap.meld(((DoubleAdapter) heap2).heap);
+            }
+
+            public int drainUpTo(long threshold, java.util.function.Consumer<? super DoubleFibonacciHeap.Node<Void>> sink) {
+                return this.heap.drainUpTo((double) threshold, sink);
+            }
+
+            public int pollMin(int k, java.util.function.Consumer<? super DoubleFibonacciHeap.Node<Void>> sink) {
+                return this.heap.pollMin(k, sink);
+            }
+
+            public KeyedHeap<DoubleFibonacciHeap.Node<Void>> splitOffTree() {
+                DoubleFibonacciHeap<Void> tree = this.heap.splitOffTree();
+                if (tree == null) {
+                    return null;
+                }
+                DoubleAdapter res = new DoubleAdapter();
+                res.heap.meld(tree);
+                return res;
+            }
+
+            public long getNumTrees() {
+                return this.heap.getNumTrees();
+            }
+
+            public long keyOf(DoubleFibonacciHeap.Node<Void> x) {
+                return (long) x.getKey();
+            }
+
+            public int idOf(DoubleFibonacciHeap.Node<Void> x) {
+                return x.getIntValue();
+            }
+
+            public boolean isInHeap(DoubleFibonacciHeap.Node<Void> x) {
+                return x.isInHeap();
+            }
+
+            public long size() {
+                return this.heap.size();
+            }
+        }
+
+       /**
+        * private static <N> void checkKeyedHeap(String name, Supplier<KeyedHeap<N>> factory, long seed)
+        *
+        * Random insert, deleteMin, decreaseKey, delete and meld sequences with many equal keys, against a sorted
+        * multiset: findMin and deleteMin must agree on the key, payloads must survive, removed nodes must report
+        * !isInHeap and be rejected with IllegalStateException, and the heap must drain in order at the end.
+        */
+        private static <N> void checkKeyedHeap(String name, java.util.function.Supplier<KeyedHeap<N>> factory, long seed) {
+            java.util.Random rnd = new java.util.Random(seed);
+            for (int seq = 0; seq < SEQUENCES; seq++) {
+                KeyedHeap<N> heap = factory.get();
+                java.util.TreeMap<Long, Integer> ref = new java.util.TreeMap<>();
+                java.util.ArrayList<N> live = new java.util.ArrayList<>();
+                java.util.HashMap<Integer, Long> keyOfId = new java.util.HashMap<>();
+                N removed = null;
+                int nextId = 0;
+                int ops = 1 + rnd.nextInt(MAX_OPS);
+                for (int op = 0; op < ops; op++) {
+                    int c = rnd.nextInt(20);
+                    if (c < 8 || live.isEmpty()) {
+                        long key = rnd.nextInt(1000);
+                        live.add(heap.insert(key, nextId));
+                        keyOfId.put(nextId++, key);
+                        ref.merge(key, 1, Integer::sum);
+                    }
+                    else if (c < 12) {
+                        N x = live.get(rnd.nextInt(live.size()));
+                        long key = heap.keyOf(x);
+                        long newKey = key - rnd.nextInt(50);
+                        remove(ref, key);
+                        heap.decreaseKey(x, newKey);
+                        ref.merge(newKey, 1, Integer::sum);
+                        keyOfId.put(heap.idOf(x), newKey);
+                    }
+                    else if (c < 14) {
+                        N x = live.remove(rnd.nextInt(live.size()));
+                        remove(ref, heap.keyOf(x));
+                        heap.delete(x);
+                        check(!heap.isInHeap(x), name + ": deleted node still in heap", seed, seq, op);
+                        removed = x;
+                    }
+                    else if (c < 15) {
+                        KeyedHeap<N> other = factory.get();
+                        for (int i = rnd.nextInt(40); i > 0; i--) {
+                            long key = rnd.nextInt(1000);
+                            live.add(other.insert(key, nextId));
+                            keyOfId.put(nextId++, key);
+                            ref.merge(key, 1, Integer::sum);
+                        }
+                        heap.meld(other);
+                        check(other.size() == 0, name + ": melded heap not emptied", seed, seq, op);
+                    }
+                    else {
+                        N min = heap.findMin();
+                        check(heap.keyOf(min) == ref.firstKey(), name + ": findMin", seed, seq, op);
+                        N x = heap.deleteMin();
+                        check(heap.keyOf(x) == ref.firstKey(), name + ": deleteMin", seed, seq, op);
+                        check(keyOfId.get(heap.idOf(x)) == heap.keyOf(x), name + ": payload", seed, seq, op);
+                        check(!heap.isInHeap(x), name + ": extracted node still in heap", seed, seq, op);
+                        remove(ref, heap.keyOf(x));
+                        live.remove(x);
+                        removed = x;
+                    }
+                    check(heap.size() == live.size(), name + ": size", seed, seq, op);
+                    if (removed != null && rnd.nextInt(8) == 0) {
+                        try {
+                            heap.decreaseKey(removed, Long.MIN_VALUE / 2);
+                            check(false, name + ": decreaseKey of a removed node accepted", seed, seq, op);
+                        }
+                        catch (IllegalStateException expected) {
+                            // rejected, heap unchanged
+                        }
+                    }
+                }
+                while (!ref.isEmpty()) {
+                    N x = heap.deleteMin();
+                    check(heap.keyOf(x) == ref.firstKey(), name + ": drain", seed, seq);
+                    remove(ref, heap.keyOf(x));
+                }
+                check(heap.size() == 0 && heap.findMin() == null && heap.deleteMin() == null,
+                        name + ": not empty after drain", seed, seq);
+            }
+        }
+
+       /**
+        * private static <H extends MeldableHeap<H, N>, N extends MeldableHeap.Node> void checkMeldableHeap(...)
+        *
+        * Random insert, deleteMin, decreaseKey, delete and meld sequences against a TreeSet of the keys, which are
+        * kept distinct: findMin must be the smallest key, size must match, meld must leave heap2 empty and still
+        * usable, melding a heap into itself must change nothing, and the heap must drain in order at the end.
+        * decreaseKey and delete of a removed node must throw IllegalStateException, and a negative delta
+        * IllegalArgumentException, without changing the heap.
+        */
+        private static <H extends MeldableHeap<H, N>, N extends MeldableHeap.Node> void checkMeldableHeap(
+                String name, java.util.function.Supplier<H> factory, long seed) {
+            java.util.Random rnd = new java.util.Random(seed);
+            for (int seq = 0; seq < SEQUENCES; seq++) {
+                H heap = factory.get();
+                java.util.TreeSet<Integer> ref = new java.util.TreeSet<>();
+                java.util.HashSet<Integer> used = new java.util.HashSet<>();
+                java.util.ArrayList<N> live = new java.util.ArrayList<>();
+                N removed = null;
+                int ops = 1 + rnd.nextInt(MAX_OPS);
+                for (int op = 0; op < ops; op++) {
+                    int c = rnd.nextInt(20);
+                    if (c < 7 || live.isEmpty() && c < 14) {
+                        int key = freshKey(rnd, used);
+                        live.add(heap.insert(key));
+                        ref.add(key);
+                    }
+                    else if (c < 11) {
+                        N x = live.get(rnd.nextInt(live.size()));
+                        int key = x.getKey();
+                        int newKey = key - 1 - rnd.nextInt(1000);
+                        if (!used.add(newKey)) {
+                            continue;
+                        }
+                        ref.remove(key);
+                        heap.decreaseKey(x, key - newKey);
+                        check(x.getKey() == newKey, name + ": decreaseKey", seed, seq, op);
+                        ref.add(newKey);
+                    }
+                    else if (c < 13) {
+                        N x = live.remove(rnd.nextInt(live.size()));
+                        ref.remove(x.getKey());
+                        heap.delete(x);
+                        removed = x;
+                    }
+                    else if (c < 14) {
+                        H other = factory.get();
+                        for (int i = rnd.nextInt(30); i > 0; i--) {
+                            int key = freshKey(rnd, used);
+                            live.add(other.insert(key));
+                            ref.add(key);
+                        }
+                        heap.meld(other);
+                        check(other.isEmpty() && other.size() == 0 && other.findMin() == null,
+                                name + ": melded heap not emptied", seed, seq, op);
+                        int key = freshKey(rnd, used);
+                        live.add(other.insert(key)); // the emptied heap is usable again
+                        ref.add(key);
+                        check(other.findMin().getKey() == key && other.size() == 1, name + ": reuse after meld", seed, seq, op);
+                        heap.meld(other);
+                        heap.meld(heap); // a no-op, checked by the size and findMin checks that follow
+                    }
+                    else {
+                        N min = heap.findMin();
+                        if (ref.isEmpty()) {
+                            check(min == null, name + ": findMin of an empty heap", seed, seq, op);
+                            heap.deleteMin();
+                        }
+                        else {
+                            check(min.getKey() == ref.first(), name + ": findMin", seed, seq, op);
+                            heap.deleteMin();
+                            ref.remove(min.getKey());
+                            live.remove(min);
+                            removed = min;
+                        }
+                    }
+                    check(heap.size() == ref.size() && heap.isEmpty() == ref.isEmpty(), name + ": size", seed, seq, op);
+                    if (removed != null && rnd.nextInt(8) == 0) {
+                        int key = removed.getKey();
+                        try {
+                            heap.decreaseKey(removed, 1);
+                            check(false, name + ": decreaseKey of a removed node accepted", seed, seq, op);
+                        }
+                        catch (IllegalStateException expected) {
+                            // rejected
+                        }
+                        try {
+                            heap.delete(removed);
+                            check(false, name + ": delete of a removed node accepted", seed, seq, op);
+                        }
+                        catch (IllegalStateException expected) {
+                            // rejected
+                        }
+                        check(removed.getKey() == key && heap.size() == ref.size(), name + ": removed node rejected",
+                                seed, seq, op);
+                    }
+                    if (!live.isEmpty() && rnd.nextInt(8) == 0) {
+                        N x = live.get(rnd.nextInt(live.size()));
+                        int key = x.getKey();
+                        try {
+                            heap.decreaseKey(x, -1);
+                            check(false, name + ": negative delta accepted", seed, seq, op);
+                        }
+                        catch (IllegalArgumentException expected) {
+                            // rejected
+                        }
+                        check(x.getKey() == key, name + ": negative delta changed the key", seed, seq, op);
+                    }
+                }
+                while (!ref.isEmpty()) {
+                    check(heap.findMin().getKey() == ref.pollFirst(), name + ": drain", seed, seq);
+                    heap.deleteMin();
+                }
+                check(heap.isEmpty() && heap.findMin() == null, name + ": not empty after drain", seed, seq);
+            }
+        }
+
+        private static int freshKey(java.util.Random rnd, java.util.HashSet<Integer> used) {
+            int key;
+            do {
+                key = rnd.nextInt(1 << 20) - (1 << 19);
+            } while (!used.add(key));
+            return key;
+        }
+
+        private static void remove(java.util.TreeMap<Long, Integer> multiset, long key) {
+            if (multiset.merge(key, -1, Integer::sum) == 0) {
+                multiset.remove(key);
+            }
+        }
+
+       /**
+        * private static <N> void checkDrainAndSplit(String name, Supplier<KeyedHeap<N>> factory, long seed)
+        *
+        * drainUpTo takes exactly the keys up to its threshold, pollMin takes the k smallest keys in ascending order,
+        * and splitOffTree followed by meld gives back the same multiset, moving the minimum only when it splits off
+        * the only tree.
+        */
+        private static <N> void checkDrainAndSplit(String name, java.util.function.Supplier<KeyedHeap<N>> factory,
+                long seed) {
+            java.util.Random rnd = new java.util.Random(seed);
+            for (int seq = 0; seq < SEQUENCES; seq++) {
+                KeyedHeap<N> heap = factory.get();
+                java.util.TreeMap<Long, Integer> ref = new java.util.TreeMap<>();
+                java.util.ArrayList<N> nodes = new java.util.ArrayList<>();
+                for (int i = rnd.nextInt(MAX_OPS); i > 0; i--) {
+                    long key = rnd.nextInt(1000);
+                    nodes.add(heap.insert(key, i));
+                    ref.merge(key, 1, Integer::sum);
+                }
+                if (!nodes.isEmpty()) {
+                    heap.deleteMin();
+                    remove(ref, ref.firstKey());
+                    for (int i = rnd.nextInt(20); i > 0; i--) {
+                        N x = nodes.get(rnd.nextInt(nodes.size()));
+                        if (heap.isInHeap(x)) {
+                            remove(ref, heap.keyOf(x));
+                            heap.decreaseKey(x, heap.keyOf(x) - rnd.nextInt(100));
+                            ref.merge(heap.keyOf(x), 1, Integer::sum);
+                        }
+                    }
+                }
+                N min = heap.findMin();
+                boolean onlyTree = heap.getNumTrees() == 1;
+                KeyedHeap<N> tree = heap.splitOffTree();
+                check(onlyTree ? heap.size() == 0 && tree.findMin() == min : heap.findMin() == min,
+                        name + ": splitOffTree moved the minimum", seed, seq);
+                if (tree != null) {
+                    check(tree.size() + heap.size() == nodes.size() - 1, name + ": splitOffTree sizes", seed, seq);
+                    heap.meld(tree);
+                }
+                long threshold = rnd.nextInt(1000);
+                int[] taken = new int[1];
+                int s = seq;
+                int count = heap.drainUpTo(threshold, x -> {
+                    check(heap.keyOf(x) <= threshold && !heap.isInHeap(x), name + ": drainUpTo passed a wrong node", seed, s);
+                    remove(ref, heap.keyOf(x));
+                    taken[0]++;
+                });
+                check(count == taken[0], name + ": drainUpTo count", seed, seq);
+                check(ref.isEmpty() || ref.firstKey() > threshold, name + ": drainUpTo left a key below the threshold",
+                        seed, seq);
+                check(heap.size() == ref.values().stream().mapToInt(Integer::intValue).sum(), name + ": drainUpTo size",
+                        seed, seq);
+                check(ref.isEmpty() ? heap.findMin() == null : heap.keyOf(heap.findMin()) == ref.firstKey(),
+                        name + ": drainUpTo min", seed, seq);
+                int k = rnd.nextInt(MAX_OPS / 4 + 1);
+                long expected = Math.min(k, heap.size());
+                taken[0] = 0;
+                count = heap.pollMin(k, x -> {
+                    check(!heap.isInHeap(x) && !ref.isEmpty() && heap.keyOf(x) == ref.firstKey(),
+                            name + ": pollMin passed a wrong node", seed, s);
+                    remove(ref, heap.keyOf(x));
+                    taken[0]++;
+                });
+                check(count == expected && count == taken[0], name + ": pollMin count", seed, seq);
+                check(heap.size() == ref.values().stream().mapToInt(Integer::intValue).sum(), name + ": pollMin size",
+                        seed, seq);
+                check(ref.isEmpty() ? heap.findMin() == null : heap.keyOf(heap.findMin()) == ref.firstKey(),
+                        name + ": pollMin min", seed, seq);
+            }
+        }
+
+       /**
+        * private static void checkDoubleExtras()
+        *
+        * DoubleFibonacciHeap rejects NaN on insert and decreaseKey without changing the heap,
+        * and treats -0.0 and 0.0 as equal keys.
+        */
+        private static void checkDoubleExtras() {
+            DoubleFibonacciHeap<String> heap = new DoubleFibonacciHeap<>();
+            DoubleFibonacciHeap.Node<String> one = heap.insert(1.0, "one");
+            try {
+                heap.insert(Double.NaN, "nan");
+                check(false, "NaN insert accepted");
+            }
+            catch (IllegalArgumentException expected) {
+                // rejected
+            }
+            try {
+                heap.decreaseKey(one, Double.NaN);
+                check(false, "NaN decreaseKey accepted");
+            }
+            catch (IllegalArgumentException expected) {
+                // rejected
+            }
+            check(heap.size() == 1 && one.getKey() == 1.0, "NaN changed the heap");
+            heap.insert(0.0, "zero");
+            heap.decreaseKey(one, -0.0);
+            check(heap.deleteMin().getKey() == 0.0 && heap.deleteMin().getKey() == 0.0 && heap.isEmpty(),
+                    "-0.0 and 0.0 are not equal keys");
+        }
+    }
+
+   /**
+    * public static class Benchmark
+    *
+    * Self-contained benchmark harness for the heap operations, run as:
+    *
+    *     java FibonacciHeap$Benchmark [size ...]
+    *
+    * For every heap size and key distribution it times insert, deleteMin, decreaseKey, delete, meld, kMin
+    * and a mixed workload, with java.util.PriorityQueue as a baseline where the operation exists there.
+    * Each row reports ns/op together with the links and cuts made per operation, so structural cost
+    * can be read next to wall-clock cost. Every measurement is the best of several runs after warm-up.
+    * For every size it then times the concurrent queues from 1 to 64 threads (ns/op is wall-clock time over
+    * the operations of all threads, so it falls as throughput scales) and reports the rank error of ConcurrentMultiQueue.
+    */
+    public static class Benchmark {
+
+        public enum Distribution { RANDOM, ASCENDING, DESCENDING, ADVERSARIAL }
+
+        private static final int WARMUP = 3;
+        private static final int RUNS = 5;
+
+        /** Bound of checkDeleteMinAllocation; above 0 only to absorb the counter's own bookkeeping. */
+        private static final double MAX_DELETE_MIN_BYTES = 0.5;
+
+        private static volatile long sink; // keeps results observable to the JIT
+
+        private interface Run {
+            /** Prepare untimed state for one run. */
+            default void setUp() {}
+
+            /** Execute the timed part and return the number of operations performed. */
+            long run();
+        }
+
+       /**
+        * public static void main(String[] args)
+        *
+        * Runs every benchmark for the sizes given as arguments (default 10000 100000 1000000),
+        * after checkDeleteMinAllocation, which stops the run if deleteMin allocates again.
+        */
+        public static void main(String[] args) {
+            int[] sizes = args.length == 0 ? new int[] {10_000, 100_000, 1_000_000} : new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+            checkDeleteMinAllocation();
+            header();
+            for (int n : sizes) {
+                for (Distribution d : Distribution.values()) {
+                    runAll(n, d);
+                }
+            }
+            for (int n : sizes) {
+                benchConcurrent(n);
+            }
+            for (int n : sizes) {
+                benchRankError(n);
+            }
+            header();
+            for (int n : sizes) {
+                benchBlocking(n);
+            }
+            for (int n : sizes) {
+                benchExecutor(n);
+            }
+            for (int n : sizes) {
+                benchScheduler(n);
+            }
+            for (int n : sizes) {
+                benchGraphs(n);
+            }
+            for (int n : sizes) {
+                benchRadix(n);
+            }
+        }
+
+       /**
+        * static void checkDeleteMinAllocation()
+        *
+        * Allocation profile of deleteMin in steady state: the bytes allocated by this thread, as counted by
+        * com.sun.management.ThreadMXBean, while a heap of 65536 random keys is drained after its first consolidation
+        * (which sizes the buckets). Throws IllegalStateException if that is more than MAX_DELETE_MIN_BYTES per call,
+        * so a change that brings back a per-call bucket array fails the run. Skipped on a JVM without the counter.
+        */
+        static void checkDeleteMinAllocation() {
+            java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)
+                    || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                System.out.println("deleteMin allocation check skipped: no per-thread allocation counter");
+                return;
+            }
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+            long thread = Thread.currentThread().getId();
+            int n = 1 << 16;
+            int[] keys = keys(n, Distribution.RANDOM);
+            double perCall = 0;
+            for (int round = 0; round <= WARMUP; round++) { // the last round counts, once deleteMin is compiled
+                FibonacciHeap heap = new FibonacciHeap();
+                for (int key : keys) {
+                    heap.insert(key);
+                }
+                heap.deleteMin();
+                long before = threads.getThreadAllocatedBytes(thread);
+                while (!heap.isEmpty()) {
+                    heap.deleteMin();
+                }
+                perCall = (double) (threads.getThreadAllocatedBytes(thread) - before) / (n - 1);
+            }
+            if (perCall > MAX_DELETE_MIN_BYTES) {
+                throw new IllegalStateException(String.format(
+                        "deleteMin allocates %.3f bytes per call in steady state (at most %.1f allowed)",
+                        perCall, MAX_DELETE_MIN_BYTES));
+            }
+            System.out.printf("deleteMin allocation: %.3f bytes per call%n", perCall);
+        }
+
+        static void header() {
+            System.out.printf("%-22s %-14s %10s %-12s %12s %10s %10s%n",
+                    "operation", "impl", "n", "keys", "ns/op", "links/op", "cuts/op");
+        }
+
+        private static void runAll(int n, Distribution d) {
+            int[] keys = keys(n, d);
+            benchInsert(n, d, keys);
+            benchBulkInsert(n, d, keys);
+            benchDeleteMin(n, d, keys);
+            benchKeyTypes(n, d, keys);
+            benchPollMin(n, d, keys);
+            benchDrainUpTo(n, d, keys);
+            benchDecreaseKey(n, d, keys);
+            benchDecreaseKeys(n, d, keys);
+            benchIncreaseKey(n, d, keys);
+            benchDelete(n, d, keys);
+            benchCancel(n, d, keys);
+            benchMeld(n, d, keys);
+            benchKMin(n, d, keys);
+            benchScan(n, d, keys);
+            benchMixed(n, d, keys);
+            benchEngines(n, d, keys);
+            benchArrayHeap(n, d, keys);
+        }
+
+       /**
+        * static int[] keys(int n, Distribution d)
+        *
+        * Returns n distinct keys in [0, n) in the order of the distribution.
+        * ADVERSARIAL uses ascending keys, and the decreaseKey/delete benchmarks then target the largest keys first,
+        * which sit at the bottom of the consolidated trees, so every operation is a real cut that marks a parent.
+        */
+        static int[] keys(int n, Distribution d) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = d == Distribution.DESCENDING ? n - 1 - i : i;
+            }
+            if (d == Distribution.RANDOM) {
+                java.util.Random rnd = new java.util.Random(n);
+                for (int i = n - 1; i > 0; i--) {
+                    int j = rnd.nextInt(i + 1);
+                    int temp = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = temp;
+                }
+            }
+            return keys;
+        }
+
+       /**
+        * static int[] targets(int[] keys, int count, Distribution d)
+        *
+        * Returns the indices (into the keys array) of the nodes to decrease/delete.
+        */
+        static int[] targets(int[] keys, int count, Distribution d) {
+            int n = keys.length;
+            int[] res = new int[count];
+            if (d == Distribution.ADVERSARIAL) {
+                for (int i = 0; i < count; i++) { // largest keys first
+                    res[i] = n - 1 - i;
+                }
+            }
+            else {
+                java.util.Random rnd = new java.util.Random(31L * n + count);
+                int[] perm = keys(n, Distribution.ASCENDING);
+                for (int i = 0; i < count; i++) {
+                    int j = i + rnd.nextInt(n - i);
+                    int temp = perm[i];
+                    perm[i] = perm[j];
+                    perm[j] = temp;
+                    res[i] = perm[i];
+                }
+            }
+            return res;
+        }
+
+        static FibonacciHeap.HeapNode[] fill(FibonacciHeap heap, int[] keys) {
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                nodes[i] = heap.insert(keys[i]);
+            }
+            return nodes;
+        }
+
+       /**
+        * static void measure(String op, String impl, int n, Object keys, Run run)
+        *
+        * Warm up, then time RUNS runs and print the best ns/op with the links and cuts of that run.
+        * keys labels the key distribution (or any other workload parameter) in the report.
+        */
+        static void measure(String op, String impl, int n, Object keys, Run run) {
+            for (int i = 0; i < WARMUP; i++) {
+                run.setUp();
+                run.run();
+            }
+            double best = Double.MAX_VALUE;
+            double bestLinks = 0;
+            double bestCuts = 0;
+            for (int i = 0; i < RUNS; i++) {
+                run.setUp();
+                int links = FibonacciHeap.totalLinks();
+                int cuts = FibonacciHeap.totalCuts();
+                long start = System.nanoTime();
+                long ops = run.run();
+                long nanos = System.nanoTime() - start;
+                ops = Math.max(ops, 1);
+                double perOp = (double) nanos / ops;
+                if (perOp < best) {
+                    best = perOp;
+                    bestLinks = (double) (FibonacciHeap.totalLinks() - links) / ops;
+                    bestCuts = (double) (FibonacciHeap.totalCuts() - cuts) / ops;
+                }
+            }
+            System.out.printf("%-22s %-14s %10d %-12s %12.1f %10.3f %10.3f%n",
+                    op, impl, n, keys, best, bestLinks, bestCuts);
+        }
+
+        private static void benchInsert(int n, Distribution d, int[] keys) {
+            measure("insert", "Fibonacci", n, d, () -> {
+                FibonacciHeap heap = new FibonacciHeap();
+                fill(heap, keys);
+                sink += heap.size();
+                return n;
+            });
+            measure("insert", "PriorityQueue", n, d, () -> {
+                java.util.PriorityQueue<Integer> pq = new java.util.PriorityQueue<>();
+                for (int k : keys) {
+                    pq.add(k);
+                }
+                sink += pq.size();
+                return n;
+            });
+        }
+
+        private static void benchBulkInsert(int n, Distribution d, int[] keys) {
+            // ns/op is per key and includes the first deleteMin, which pays for the consolidation
+            measure("insert+deleteMin", "Fibonacci", n, d, () -> {
+                FibonacciHeap heap = new FibonacciHeap();
+                fill(heap, keys);
+                heap.deleteMin();
+                sink += heap.size();
+                return n;
+            });
+            measure("insertAll+deleteMin", "Fibonacci", n, d, () -> {
+                FibonacciHeap heap = new FibonacciHeap();
+                heap.insertAll(keys, false);
+                heap.deleteMin();
+                sink += heap.size();
+                return n;
+            });
+            measure("insertAll(preLink)+dM", "Fibonacci", n, d, () -> {
+                FibonacciHeap heap = new FibonacciHeap();
+                heap.insertAll(keys, true);
+                heap.deleteMin();
+                sink += heap.size();
+                return n;
+            });
+        }
+
+        private static void benchDeleteMin(int n, Distribution d, int[] keys) {
+            measure("deleteMin", "Fibonacci", n, d, new Run() {
+                FibonacciHeap heap;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    fill(this.heap, keys);
+                }
+
+                public long run() {
+                    for (int i = 0; i < n; i++) {
+                        sink += this.heap.findMin().getKey();
+                        this.heap.deleteMin();
+                    }
+                    return n;
+                }
+            });
+            measure("deleteMin", "PriorityQueue", n, d, new Run() {
+                java.util.PriorityQueue<Integer> pq;
+
+                public void setUp() {
+                    this.pq = new java.util.PriorityQueue<>(n);
+                    for (int k : keys) {
+                        this.pq.add(k);
+                    }
+                }
+
+                public long run() {
+                    for (int i = 0; i < n; i++) {
+                        sink += this.pq.poll();
+                    }
+                    return n;
+                }
+            });
+        }
+
+        private static void benchKeyTypes(int n, Distribution d, int[] keys) {
+            // ns/op is per key: fill, decrease every other key below the rest, then drain
+            long shift = 1L << 40; // the long and double keys use the full range, not only int keys
+            measure("fill+decrease+drain", "Fibonacci", n, d, new Run() {
+                public long run() {
+                    FibonacciHeap heap = new FibonacciHeap();
+                    FibonacciHeap.HeapNode[] nodes = fill(heap, keys);
+                    for (int i = 0; i < n; i += 2) {
+                        heap.decreaseKey(nodes[i], 2 * n);
+                    }
+                    while (!heap.isEmpty()) {
+                        sink += heap.findMin().getKey();
+                        heap.deleteMin();
+                    }
+                    return n;
+                }
+            });
+            measure("fill+decrease+drain", "Long", n, d, new Run() {
+                public long run() {
+                    FibonacciHeap.LongFibonacciHeap<Object> heap = new FibonacciHeap.LongFibonacciHeap<>();
+                    java.util.List<FibonacciHeap.LongFibonacciHeap.Node<Object>> nodes = new java.util.ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        nodes.add(heap.insert(keys[i] + shift, i));
+                    }
+                    for (int i = 0; i < n; i += 2) {
+                        heap.decreaseKey(nodes.get(i), nodes.get(i).getKey() - 2 * shift);
+                    }
+                    while (!heap.isEmpty()) {
+                        sink += heap.deleteMin().getIntValue();
+                    }
+                    return n;
+                }
+            });
+            measure("fill+decrease+drain", "Double", n, d, new Run() {
+                public long run() {
+                    FibonacciHeap.DoubleFibonacciHeap<Object> heap = new FibonacciHeap.DoubleFibonacciHeap<>();
+                    java.util.List<FibonacciHeap.DoubleFibonacciHeap.Node<Object>> nodes = new java.util.ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        nodes.add(heap.insert(keys[i] * 0.5, i));
+                    }
+                    for (int i = 0; i < n; i += 2) {
+                        heap.decreaseKey(nodes.get(i), nodes.get(i).getKey() - n);
+                    }
+                    while (!heap.isEmpty()) {
+                        sink += heap.deleteMin().getIntValue();
+                    }
+                    return n;
+                }
+            });
+        }
+
+        private static void benchDrainUpTo(int n, Distribution d, int[] keys) {
+            int ticks = 1000;
+            // a timer wheel: the clock advances n/1000 per tick and every key <= now is taken; ns/op is per key
+            measure("findMin+deleteMin<=t", "Fibonacci", n, d, new Run() {
+                FibonacciHeap heap;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    fill(this.heap, keys);
+                }
+
+                public long run() {
+                    for (int tick = 1; tick <= ticks; tick++) {
+                        int now = (int) ((long) n * tick / ticks);
+                        while (!this.heap.isEmpty() && this.heap.findMin().getKey() <= now) {
+                            sink += this.heap.findMin().getKey();
+                            this.heap.deleteMin();
+                        }
+                    }
+                    return n;
+                }
+            });
+            measure("drainUpTo(t)", "Fibonacci", n, d, new Run() {
+                FibonacciHeap heap;
+                final java.util.function.IntConsumer consumer = key -> sink += key;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    fill(this.heap, keys);
+                }
+
+                public long run() {
+                    for (int tick = 1; tick <= ticks; tick++) {
+                        this.heap.drainUpTo((int) ((long) n * tick / ticks), this.consumer);
+                    }
+                    return n;
+                }
+            });
+        }
+
+        private static void benchPollMin(int n, Distribution d, int[] keys) {
+            int k = 64;
+            // ns/op is per extracted key; half of the heap is drained, k keys per tick
+            measure("findMin+deleteMin x64", "Fibonacci", n, d, new Run() {
+                FibonacciHeap heap;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    fill(this.heap, keys);
+                    this.heap.deleteMin();
+                }
+
+                public long run() {
+                    for (int i = 0; i < n / 2; i++) {
+                        sink += this.heap.findMin().getKey();
+                        this.heap.deleteMin();
+                    }
+                    return n / 2;
+                }
+            });
+            measure("pollMin(64)", "Fibonacci", n, d, new Run() {
+                FibonacciHeap heap;
+                final int[] dest = new int[k];
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    fill(this.heap, keys);
+                    this.heap.deleteMin();
+                }
+
+                public long run() {
+                    for (int i = 0; i < n / 2; i += k) {
+                        this.heap.pollMin(this.dest, k);
+                        sink += this.dest[k - 1];
+                    }
+                    return n / 2;
+                }
+            });
+        }
+
+        private static void benchDecreaseKey(int n, Distribution d, int[] keys) {
+            int count = n / 2;
+            int[] targets = targets(keys, count, d);
+            measure("decreaseKey", "Fibonacci", n, d, new Run() {
+                FibonacciHeap heap;
+                FibonacciHeap.HeapNode[] nodes;
+                FibonacciHeap.HeapNode minNode;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    this.nodes = fill(this.heap, keys);
+                    this.minNode = this.heap.findMin();
+                    this.heap.deleteMin(); // consolidate once so there are trees to cut from
+                }
+
+                public long run() {
+                    for (int i = 0; i < count; i++) {
+                        FibonacciHeap.HeapNode node = this.nodes[targets[i]];
+                        if (node != this.minNode) {
+                            this.heap.decreaseKey(node, 2 * n); // stays distinct, drops below every original key
+                        }
+                    }
+                    sink += this.heap.findMin().getKey();
+                    return count;
+                }
+            });
+            // the same work addressed by int id: a HashMap from id to HeapNode against the indexed heap
+            measure("decreaseKey by id", "Fib+HashMap", n, d, new Run() {
+                FibonacciHeap heap;
+                java.util.HashMap<Integer, FibonacciHeap.HeapNode> nodes;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    this.nodes = new java.util.HashMap<>();
+                    int minId = 0;
+                    for (int i = 0; i < n; i++) {
+                        this.nodes.put(i, this.heap.insert(keys[i]));
+                        if (keys[i] < keys[minId]) {
+                            minId = i;
+                        }
+                    }
+                    this.nodes.remove(minId);
+                    this.heap.deleteMin();
+                }
+
+                public long run() {
+                    for (int i = 0; i < count; i++) {
+                        FibonacciHeap.HeapNode node = this.nodes.get(targets[i]);
+                        if (node != null) {
+                            this.heap.decreaseKey(node, 2 * n);
+                        }
+                    }
+                    sink += this.heap.findMin().getKey();
+                    return count;
+                }
+            });
+            measure("decreaseKey by id", "Indexed", n, d, new Run() {
+                FibonacciHeap.IndexedFibonacciHeap heap;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap.IndexedFibonacciHeap(n);
+                    for (int i = 0; i < n; i++) {
+                        this.heap.insert(i, keys[i]);
+                    }
+                    this.heap.deleteMin();
+                }
+
+                public long run() {
+                    for (int i = 0; i < count; i++) {
+                        int id = targets[i];
+                        if (this.heap.contains(id)) {
+                            this.heap.decreaseKey(id, this.heap.keyOf(id) - 2 * n);
+                        }
+                    }
+                    sink += this.heap.minKey();
+                    return count;
+                }
+            });
+        }
+
+        private static void benchDecreaseKeys(int n, Distribution d, int[] keys) {
+            // a shortest-path style step: 32 relaxations, then one vertex pop; ns/op is per decreaseKey
+            int batch = 32;
+            int count = n / 2 / batch * batch;
+            int[] targets = targets(keys, count + 1, d);
+            for (boolean batched : new boolean[] {false, true}) {
+                measure(batched ? "decreaseKeys(32)+pop" : "decreaseKey x32+pop", "Fibonacci", n, d, new Run() {
+                    FibonacciHeap heap;
+                    FibonacciHeap.HeapNode[] nodes;
+                    FibonacciHeap.HeapNode minNode;
+                    final FibonacciHeap.HeapNode[] group = new FibonacciHeap.HeapNode[batch];
+                    final int[] deltas = new int[batch];
+
+                    public void setUp() {
+                        this.heap = new FibonacciHeap();
+                        this.nodes = fill(this.heap, keys);
+                        this.minNode = this.heap.findMin();
+                        this.heap.deleteMin();
+                        java.util.Arrays.fill(this.deltas, 2 * n);
+                    }
+
+                    public long run() {
+                        int t = 0;
+                        for (int done = 0; done < count; done += batch) {
+                            int g = 0;
+                            while (g < batch) {
+                                FibonacciHeap.HeapNode node = this.nodes[targets[t++]];
+                                if (node != this.minNode) {
+                                    this.group[g++] = node;
+                                }
+                            }
+                            if (batched) {
+                                this.heap.decreaseKeys(this.group, this.deltas, batch);
+                            }
+                            else {
+                                for (int i = 0; i < batch; i++) {
+                                    this.heap.decreaseKey(this.group[i], 2 * n);
+                                }
+                            }
+                            this.heap.deleteMin(); // pops a decreased node, which is never targeted again
+                        }
+                        return count;
+                    }
+                });
+            }
+        }
+
+        private static void benchIncreaseKey(int n, Distribution d, int[] keys) {
+            int count = n / 2;
+            int[] targets = targets(keys, count, d);
+            for (boolean reinsert : new boolean[] {true, false}) {
+                measure(reinsert ? "delete+insert" : "increaseKey", "Fibonacci", n, d, new Run() {
+                    FibonacciHeap heap;
+                    FibonacciHeap.HeapNode[] nodes;
+                    FibonacciHeap.HeapNode minNode;
+
+                    public void setUp() {
+                        this.heap = new FibonacciHeap();
+                        this.nodes = fill(this.heap, keys);
+                        this.minNode = this.heap.findMin();
+                        this.heap.deleteMin();
+                    }
+
+                    public long run() {
+                        for (int i = 0; i < count; i++) {
+                            FibonacciHeap.HeapNode node = this.nodes[targets[i]];
+                            if (node == this.minNode) {
+                                continue;
+                            }
+                            if (reinsert) {
+                                int key = node.getKey();
+                                this.heap.delete(node);
+                                this.nodes[targets[i]] = this.heap.insert(key + 2 * n);
+                            }
+                            else {
+                                this.heap.increaseKey(node, 2 * n);
+                            }
+                        }
+                        sink += this.heap.findMin().getKey();
+                        return count;
+                    }
+                });
+            }
+        }
+
+        private static void benchDelete(int n, Distribution d, int[] keys) {
+            int count = n / 2;
+            int[] targets = targets(keys, count, d);
+            measure("delete", "Fibonacci", n, d, new Run() {
+                FibonacciHeap heap;
+                FibonacciHeap.HeapNode[] nodes;
+                FibonacciHeap.HeapNode minNode;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    this.nodes = fill(this.heap, keys);
+                    this.minNode = this.heap.findMin();
+                    this.heap.deleteMin();
+                }
+
+                public long run() {
+                    for (int i = 0; i < count; i++) {
+                        FibonacciHeap.HeapNode node = this.nodes[targets[i]];
+                        if (node != this.minNode) {
+                            this.heap.delete(node);
+                        }
+                    }
+                    sink += this.heap.size();
+                    return count;
+                }
+            });
+            measure("delete", "PriorityQueue", Math.min(n, 100_000), d, new Run() {
+                final int m = Math.min(n, 100_000); // remove(Object) is O(n)
+                final int c = m / 10;
+                java.util.PriorityQueue<Integer> pq;
+
+                public void setUp() {
+                    this.pq = new java.util.PriorityQueue<>(m);
+                    for (int i = 0; i < m; i++) {
+                        this.pq.add(i);
+                    }
+                }
+
+                public long run() {
+                    for (int i = 0; i < this.c; i++) {
+                        this.pq.remove(this.m - 1 - 7 * i % this.m);
+                    }
+                    sink += this.pq.size();
+                    return this.c;
+                }
+            });
+        }
+
+        private static void benchCancel(int n, Distribution d, int[] keys) {
+            int count = n * 7 / 10;
+            int[] targets = targets(keys, count, d);
+            // ns/op is per inserted key: 70% of the keys are cancelled, then the heap is drained
+            for (boolean lazy : new boolean[] {false, true}) {
+                measure("cancel 70%+drain", lazy ? "Fibonacci lazy" : "Fibonacci", n, d, new Run() {
+                    FibonacciHeap heap;
+                    FibonacciHeap.HeapNode[] nodes;
+
+                    public void setUp() {
+                        this.heap = new FibonacciHeap();
+                        if (lazy) {
+                            this.heap.enableLazyDelete(0.5);
+                        }
+                        this.nodes = fill(this.heap, keys);
+                    }
+
+                    public long run() {
+                        for (int i = 0; i < count; i++) {
+                            this.heap.delete(this.nodes[targets[i]]);
+                        }
+                        while (!this.heap.isEmpty()) {
+                            sink += this.heap.findMin().getKey();
+                            this.heap.deleteMin();
+                        }
+                        return n;
+                    }
+                });
+            }
+        }
+
+        private static void benchMeld(int n, Distribution d, int[] keys) {
+            int parts = 64;
+            measure("meld+deleteMin", "Fibonacci", n, d, new Run() {
+                FibonacciHeap[] heaps;
+
+                public void setUp() {
+                    this.heaps = new FibonacciHeap[parts];
+                    for (int p = 0; p < parts; p++) {
+                        this.heaps[p] = new FibonacciHeap();
+                    }
+                    for (int i = 0; i < n; i++) {
+                        this.heaps[i % parts].insert(keys[i]);
+                    }
+                    for (FibonacciHeap heap : this.heaps) {
+                        heap.deleteMin(); // each part is consolidated, as a long-lived heap would be
+                    }
+                }
+
+                public long run() {
+                    for (int p = 1; p < parts; p++) {
+                        this.heaps[0].meld(this.heaps[p]);
+                    }
+                    this.heaps[0].deleteMin();
+                    sink += this.heaps[0].size();
+                    return parts;
+                }
+            });
+        }
+
+        private static void benchKMin(int n, Distribution d, int[] keys) {
+            int k = Math.min(100, Integer.highestOneBit(n));
+            // 2^r + 1 inserts followed by a deleteMin leave a single binomial tree of size 2^r
+            int treeSize = Integer.highestOneBit(n);
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.insert(-1);
+            for (int i = 0; i < treeSize; i++) {
+                heap.insert(keys[i]);
+            }
+            heap.deleteMin();
+            measure("kMin(k=" + k + ")", "Fibonacci", n, d, () -> {
+                int reps = 100;
+                for (int i = 0; i < reps; i++) {
+                    sink += FibonacciHeap.kMin(heap, k)[k - 1];
+                }
+                return reps;
+            });
+            measure("sortedIterator(k=" + k + ")", "Fibonacci", n, d, () -> {
+                int reps = 100;
+                for (int i = 0; i < reps; i++) {
+                    java.util.PrimitiveIterator.OfInt it = heap.sortedIterator();
+                    for (int j = 0; j < k; j++) {
+                        sink += it.nextInt();
+                    }
+                }
+                return reps;
+            });
+        }
+
+        private static void benchScan(int n, Distribution d, int[] keys) {
+            FibonacciHeap heap = new FibonacciHeap();
+            fill(heap, keys);
+            heap.deleteMin(); // consolidated trees, so the scan has subtrees to split
+            for (boolean parallel : new boolean[] {false, true}) {
+                measure(parallel ? "keys().parallel().sum" : "keys().sum", "Fibonacci", n, d, () -> {
+                    java.util.stream.IntStream keyStream = heap.keys();
+                    sink += (parallel ? keyStream.parallel() : keyStream).asLongStream().sum();
+                    return heap.size();
+                });
+            }
+        }
+
+        /** A concurrent queue of int keys under test; deleteMin returns ConcurrentMultiQueue.EMPTY when empty. */
+        private interface ConcurrentQueue {
+            void insert(int key);
+
+            long deleteMin();
+        }
+
+        private static ConcurrentQueue lockedFibonacci() {
+            FibonacciHeap heap = new FibonacciHeap();
+            return new ConcurrentQueue() {
+                public synchronized void insert(int key) {
+                    heap.insert(key);
+                }
+
+                public synchronized long deleteMin() {
+                    HeapNode node = heap.findMin();
+                    if (node == null) {
+                        return ConcurrentMultiQueue.EMPTY;
+                    }
+                    heap.deleteMin();
+                    return node.getKey();
+                }
+            };
+        }
+
+        private static ConcurrentQueue multiQueue(int threads) {
+            ConcurrentMultiQueue queue = new ConcurrentMultiQueue(2, threads);
+            return new ConcurrentQueue() {
+                public void insert(int key) {
+                    queue.insert(key);
+                }
+
+                public long deleteMin() {
+                    return queue.deleteMin();
+                }
+            };
+        }
+
+       /**
+        * static void measureConcurrent(String impl, int n, int threads, IntFunction<ConcurrentQueue> factory)
+        *
+        * Fill a queue with n/2 keys, then let threads threads share n insert+deleteMin pairs, and print ns/op
+        * over all 2n operations.
+        */
+        static void measureConcurrent(String impl, int n, int threads,
+                java.util.function.IntFunction<ConcurrentQueue> factory) {
+            int[] keys = keys(n, Distribution.RANDOM);
+            int pairs = n / threads;
+            measure("insert+deleteMin", impl, n, threads + " threads", new Run() {
+                ConcurrentQueue queue;
+
+                public void setUp() {
+                    this.queue = factory.apply(threads);
+                    for (int i = 0; i < n / 2; i++) {
+                        this.queue.insert(keys[i]);
+                    }
+                }
+
+                public long run() {
+                    Thread[] workers = new Thread[threads];
+                    for (int t = 0; t < threads; t++) {
+                        int offset = t * pairs;
+                        workers[t] = new Thread(() -> {
+                            long local = 0;
+                            for (int i = 0; i < pairs; i++) {
+                                this.queue.insert(keys[(offset + i) % n]);
+                                local += this.queue.deleteMin();
+                            }
+                            sink += local;
+                        });
+                        workers[t].start();
+                    }
+                    joinAll(workers);
+                    return 2L * pairs * threads;
+                }
+            });
+        }
+
+        private static ConcurrentQueue flatCombining(int threads) {
+            FlatCombiningFibonacciHeap heap = new FlatCombiningFibonacciHeap(threads);
+            return new ConcurrentQueue() {
+                public void insert(int key) {
+                    heap.insert(key);
+                }
+
+                public long deleteMin() {
+                    return heap.deleteMin();
+                }
+            };
+        }
+
+        private static ConcurrentQueue priorityBlockingQueue() {
+            java.util.concurrent.PriorityBlockingQueue<Integer> queue = new java.util.concurrent.PriorityBlockingQueue<>();
+            return new ConcurrentQueue() {
+                public void insert(int key) {
+                    queue.add(key);
+                }
+
+                public long deleteMin() {
+                    Integer key = queue.poll();
+                    return key == null ? ConcurrentMultiQueue.EMPTY : key;
+                }
+            };
+        }
+
+        private static void benchConcurrent(int n) {
+            for (int threads = 1; threads <= 64; threads *= 2) {
+                measureConcurrent("locked Fib", n, threads, t -> lockedFibonacci());
+                measureConcurrent("FlatCombining", n, threads, Benchmark::flatCombining);
+                measureConcurrent("PriorityBlockQ", n, threads, t -> priorityBlockingQueue());
+                measureConcurrent("MultiQueue c=2", n, threads, Benchmark::multiQueue);
+            }
+        }
+
+       /**
+        * private static void benchRankError(int n)
+        *
+        * The rank error of ConcurrentMultiQueue: the number of smaller keys in the queue when a key is deleted.
+        * It depends on the number of shards (c * threads) and the random choices, not on timing, so it is measured
+        * by one thread, which gives repeatable numbers; a Fenwick tree over the keys counts the smaller ones.
+        */
+        private static void benchRankError(int n) {
+            System.out.printf("%-22s %-14s %10s %-12s %12s %10s%n", "operation", "impl", "n", "shards", "mean rank", "max rank");
+            int[] keys = keys(2 * n, Distribution.RANDOM);
+            for (int threads = 1; threads <= 64; threads *= 2) {
+                ConcurrentMultiQueue queue = new ConcurrentMultiQueue(2, threads);
+                int[] tree = new int[2 * n + 1]; // Fenwick tree of the keys in the queue
+                for (int i = 0; i < n; i++) {
+                    queue.insert(keys[i]);
+                    fenwickAdd(tree, keys[i], 1);
+                }
+                long total = 0;
+                long max = 0;
+                for (int i = 0; i < n; i++) {
+                    int key = (int) queue.deleteMin();
+                    fenwickAdd(tree, key, -1);
+                    long rank = fenwickCount(tree, key); // keys smaller than the deleted one
+                    total += rank;
+                    max = Math.max(max, rank);
+                    queue.insert(keys[n + i]);
+                    fenwickAdd(tree, keys[n + i], 1);
+                }
+                System.out.printf("%-22s %-14s %10d %-12s %12.1f %10d%n", "rank error", "MultiQueue c=2", n,
+                        queue.getNumShards() + " shards", (double) total / n, max);
+            }
+        }
+
+        private static final java.lang.reflect.Method OF_VIRTUAL = virtualThreadFactory();
+
+        private static java.lang.reflect.Method virtualThreadFactory() {
+            try {
+                return Thread.class.getMethod("ofVirtual"); // Java 21 and later
+            }
+            catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+       /**
+        * static Thread startThread(Runnable task)
+        *
+        * Start task on a virtual thread if this JDK has them (looked up by reflection, so the file still compiles
+        * on older JDKs), on a platform thread otherwise.
+        */
+        static Thread startThread(Runnable task) {
+            if (OF_VIRTUAL == null) {
+                Thread res = new Thread(task);
+                res.start();
+                return res;
+            }
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                return (Thread) Class.forName("java.lang.Thread$Builder").getMethod("start", Runnable.class)
+                        .invoke(builder, task);
+            }
+            catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        static void joinAll(Thread[] threads) {
+            try {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+       /**
+        * private static void benchBlocking(int n)
+        *
+        * FibonacciBlockingQueue against PriorityBlockingQueue, with virtual threads where the JDK has them:
+        * the round trip of one element through two queues (hand-off latency: ns/op per round trip),
+        * and n elements through 4 producers and 4 consumers (throughput: ns/op per element).
+        */
+        private static void benchBlocking(int n) {
+            String kind = OF_VIRTUAL == null ? "platform" : "virtual";
+            int trips = Math.max(n / 10, 1);
+            for (boolean fibonacci : new boolean[] {true, false}) {
+                String impl = fibonacci ? "FibBlockingQ" : "PriorityBlockQ";
+                java.util.function.Supplier<java.util.concurrent.BlockingQueue<Long>> factory = () -> fibonacci
+                        ? new FibonacciBlockingQueue<Long>(Long::longValue)
+                        : new java.util.concurrent.PriorityBlockingQueue<Long>();
+                measure("ping-pong", impl, trips, kind, () -> {
+                    java.util.concurrent.BlockingQueue<Long> ping = factory.get();
+                    java.util.concurrent.BlockingQueue<Long> pong = factory.get();
+                    Thread echo = startThread(() -> {
+                        try {
+                            for (int i = 0; i < trips; i++) {
+                                pong.put(ping.take());
+                            }
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                    try {
+                        for (long i = 0; i < trips; i++) {
+                            ping.put(i);
+                            sink += pong.take();
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                    joinAll(new Thread[] {echo});
+                    return trips;
+                });
+                int producers = 4;
+                int perThread = n / producers;
+                measure("4 put / 4 take", impl, n, kind, () -> {
+                    java.util.concurrent.BlockingQueue<Long> queue = factory.get();
+                    Thread[] threads = new Thread[2 * producers];
+                    for (int t = 0; t < producers; t++) {
+                        long base = (long) t * perThread;
+                        threads[t] = startThread(() -> {
+                            try {
+                                for (int i = 0; i < perThread; i++) {
+                                    queue.put(base + i);
+                                }
+                            }
+                            catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+                        threads[producers + t] = startThread(() -> {
+                            long local = 0;
+                            try {
+                                for (int i = 0; i < perThread; i++) {
+                                    local += queue.take();
+                                }
+                            }
+                            catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            sink += local;
+                        });
+                    }
+                    joinAll(threads);
+                    return (long) perThread * producers;
+                });
+            }
+        }
+
+        /** A task for the executor benchmarks: a little work, then its priority is logged in run order. */
+        private static final class LoggedTask implements Runnable, Comparable<LoggedTask> {
+            final int priority;
+            final int[] log;
+            final java.util.concurrent.atomic.AtomicInteger next;
+            final java.util.concurrent.CountDownLatch done;
+
+            LoggedTask(int priority, int[] log, java.util.concurrent.atomic.AtomicInteger next,
+                    java.util.concurrent.CountDownLatch done) {
+                this.priority = priority;
+                this.log = log;
+                this.next = next;
+                this.done = done;
+            }
+
+            @Override
+            public void run() {
+                long x = this.priority;
+                for (int i = 0; i < 64; i++) {
+                    x = x * 6364136223846793005L + 1442695040888963407L;
+                }
+                sink += x;
+                this.log[this.next.getAndIncrement()] = this.priority;
+                this.done.countDown();
+            }
+
+            @Override
+            public int compareTo(LoggedTask other) {
+                return Integer.compare(this.priority, other.priority);
+            }
+        }
+
+       /**
+        * private static void benchExecutor(int n)
+        *
+        * PriorityExecutor against a ThreadPoolExecutor on one shared PriorityBlockingQueue, both with 4 threads:
+        * n small tasks of distinct random priorities are queued while every worker is held by a gate task,
+        * then the gate opens and the workers run them. ns/op is per task, submission included.
+        * Priority inversion counts, for every task, the tasks of smaller priority that ran later;
+        * a single strict queue scores 0, except for the few tasks already taken when others finish first.
+        * The per-worker heaps of PriorityExecutor score in the thousands when the threads share fewer cores,
+        * see its class comment.
+        */
+        private static void benchExecutor(int n) {
+            int threads = 4;
+            int[] priorities = keys(n, Distribution.RANDOM);
+            int[] log = new int[n];
+            for (boolean stealing : new boolean[] {true, false}) {
+                String impl = stealing ? "PriorityExec" : "TPE+PriorityBQ";
+                java.util.concurrent.ExecutorService[] executor = new java.util.concurrent.ExecutorService[1];
+                Run run = new Run() {
+                    public void setUp() {
+                        if (stealing) {
+                            executor[0] = new PriorityExecutor(threads);
+                        }
+                        else {
+                            executor[0] = new java.util.concurrent.ThreadPoolExecutor(threads, threads, 0,
+                                    java.util.concurrent.TimeUnit.SECONDS, new java.util.concurrent.PriorityBlockingQueue<>());
+                        }
+                    }
+
+                    public long run() {
+                        java.util.concurrent.atomic.AtomicInteger next = new java.util.concurrent.atomic.AtomicInteger();
+                        java.util.concurrent.CountDownLatch done = new java.util.concurrent.CountDownLatch(n);
+                        java.util.concurrent.CountDownLatch held = new java.util.concurrent.CountDownLatch(threads);
+                        java.util.concurrent.CountDownLatch gate = new java.util.concurrent.CountDownLatch(1);
+                        for (int t = 0; t < threads; t++) {
+                            Runnable hold = () -> {
+                                held.countDown();
+                                try {
+                                    gate.await();
+                                }
+                                catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            };
+                            if (stealing) {
+                                ((PriorityExecutor) executor[0]).execute(hold, Long.MIN_VALUE);
+                            }
+                            else {
+                                executor[0].execute(hold); // the first tasks start the core threads, not queued
+                            }
+                        }
+                        try {
+                            held.await();
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException(e);
+                        }
+                        for (int p : priorities) {
+                            LoggedTask task = new LoggedTask(p, log, next, done);
+                            if (stealing) {
+                                ((PriorityExecutor) executor[0]).execute(task, p);
+                            }
+                            else {
+                                executor[0].execute(task);
+                            }
+                        }
+                        gate.countDown();
+                        try {
+                            done.await();
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException(e);
+                        }
+                        executor[0].shutdown();
+                        return n;
+                    }
+                };
+                measure("execute", impl, n, threads + " threads", run);
+                int[] tree = new int[n + 1]; // the log of the last run: count inversions from the end
+                long total = 0;
+                long max = 0;
+                for (int i = n - 1; i >= 0; i--) {
+                    long later = fenwickCount(tree, log[i]);
+                    total += later;
+                    max = Math.max(max, later);
+                    fenwickAdd(tree, log[i], 1);
+                }
+                System.out.printf("%-22s %-14s %10d %-12s %12.1f %10d%n", "priority inversion", impl, n,
+                        threads + " threads", (double) total / n, max);
+            }
+        }
+
+       /**
+        * private static void benchScheduler(int n)
+        *
+        * FibonacciScheduledExecutor against ScheduledThreadPoolExecutor (with removeOnCancel, so cancelled tasks
+        * leave its queue too), one worker each: n timeouts an hour away of which 90% are cancelled
+        * (ns/op per timeout, schedule and cancel), and n tasks due within a millisecond run to completion
+        * (ns/op per task, which is where the batched release of due tasks shows).
+        */
+        private static void benchScheduler(int n) {
+            int[] order = keys(n, Distribution.RANDOM);
+            for (boolean fibonacci : new boolean[] {true, false}) {
+                String impl = fibonacci ? "FibScheduler" : "STPE";
+                java.util.function.Supplier<java.util.concurrent.ScheduledExecutorService> factory = () -> {
+                    if (fibonacci) {
+                        return new FibonacciScheduledExecutor(1);
+                    }
+                    java.util.concurrent.ScheduledThreadPoolExecutor res = new java.util.concurrent.ScheduledThreadPoolExecutor(1);
+                    res.setRemoveOnCancelPolicy(true);
+                    return res;
+                };
+                measure("schedule+cancel 90%", impl, n, "1h timeouts", () -> {
+                    java.util.concurrent.ScheduledExecutorService executor = factory.get();
+                    java.util.concurrent.ScheduledFuture<?>[] futures = new java.util.concurrent.ScheduledFuture<?>[n];
+                    Runnable task = () -> sink++;
+                    for (int i = 0; i < n; i++) {
+                        futures[i] = executor.schedule(task, 3_600_000_000L + order[i], java.util.concurrent.TimeUnit.MICROSECONDS);
+                    }
+                    for (int i = 0; i < n; i++) {
+                        if (order[i] % 10 != 0) {
+                            futures[i].cancel(false);
+                        }
+                    }
+                    executor.shutdownNow();
+                    return n;
+                });
+                measure("schedule+fire", impl, n, "due <1ms", () -> {
+                    java.util.concurrent.ScheduledExecutorService executor = factory.get();
+                    java.util.concurrent.CountDownLatch done = new java.util.concurrent.CountDownLatch(n);
+                    Runnable task = done::countDown;
+                    for (int i = 0; i < n; i++) {
+                        executor.schedule(task, order[i] % 1000, java.util.concurrent.TimeUnit.MICROSECONDS);
+                    }
+                    try {
+                        done.await();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                    executor.shutdown();
+                    return n;
+                });
+            }
+        }
+
+       /**
+        * private static void benchGraphs(int n)
+        *
+        * Dijkstra and Prim over IndexedFibonacciHeap, IndexedBinaryHeap and IndexedPairingHeap (ns/op per vertex)
+        * on graphs of about n vertices: a grid with random weights, a random sparse graph of average degree 8,
+        * a road-like graph (a jittered grid with Euclidean weights, missing streets and faster highways every
+        * 16 rows and columns, where A* also runs corner to corner), and a dense graph of degree n/8 on at most
+        * 2048 vertices, the only one where decreaseKey outnumbers deleteMin by a wide margin.
+        */
+        private static void benchGraphs(int n) {
+            int side = Math.max(2, (int) Math.sqrt(n));
+            int[][] xy = new int[2][];
+            int dense = Math.min(n, 2048);
+            CsrGraph[] graphs = {gridGraph(side), randomGraph(n), roadGraph(side, xy), randomGraph(dense, Math.max(1, dense / 16))};
+            String[] labels = {"grid", "random", "road-like", "dense"};
+            String[] impls = {"Fibonacci", "Binary", "Pairing"};
+            java.util.function.IntFunction<java.util.function.IntFunction<IndexedIntHeap>> factories = i -> {
+                switch (i) {
+                    case 0: return IndexedFibonacciHeap::new;
+                    case 1: return IndexedBinaryHeap::new;
+                    default: return IndexedPairingHeap::new;
+                }
+            };
+            for (int g = 0; g < graphs.length; g++) {
+                CsrGraph graph = graphs[g];
+                int v = graph.numVertices();
+                for (int h = 0; h < impls.length; h++) {
+                    java.util.function.IntFunction<IndexedIntHeap> factory = factories.apply(h);
+                    measure("dijkstra", impls[h], v, labels[g], () -> {
+                        sink += GraphAlgorithms.dijkstra(graph, 0, factory.apply(v), null)[v - 1];
+                        return v;
+                    });
+                }
+                for (int h = 0; h < impls.length; h++) {
+                    java.util.function.IntFunction<IndexedIntHeap> factory = factories.apply(h);
+                    measure("prim", impls[h], v, labels[g], () -> {
+                        sink += GraphAlgorithms.prim(graph, factory.apply(v), null);
+                        return v;
+                    });
+                }
+            }
+            CsrGraph road = graphs[2];
+            int target = road.numVertices() - 1;
+            // Highways halve the weight, so half the straight-line distance is a consistent lower bound.
+            java.util.function.IntUnaryOperator bound =
+                    u -> (int) (0.5 * Math.hypot(xy[0][u] - xy[0][target], xy[1][u] - xy[1][target]));
+            for (int h = 0; h < impls.length; h++) {
+                java.util.function.IntFunction<IndexedIntHeap> factory = factories.apply(h);
+                measure("astar", impls[h], road.numVertices(), "road-like", () -> {
+                    sink += GraphAlgorithms.astar(road, 0, target, bound, factory.apply(road.numVertices()), null);
+                    return road.numVertices();
+                });
+            }
+        }
+
+        /** side*side grid, 4-neighbour undirected edges with weights in [1, 100]. */
+        private static CsrGraph gridGraph(int side) {
+            java.util.Random rnd = new java.util.Random(23);
+            int m = 2 * side * (side - 1);
+            int[] from = new int[m];
+            int[] to = new int[m];
+            int[] weight = new int[m];
+            int e = 0;
+            for (int r = 0; r < side; r++) {
+                for (int c = 0; c < side; c++) {
+                    int u = r * side + c;
+                    if (c + 1 < side) {
+                        from[e] = u;
+                        to[e] = u + 1;
+                        weight[e++] = 1 + rnd.nextInt(100);
+                    }
+                    if (r + 1 < side) {
+                        from[e] = u;
+                        to[e] = u + side;
+                        weight[e++] = 1 + rnd.nextInt(100);
+                    }
+                }
+            }
+            return new CsrGraph(side * side, from, to, weight, e, true);
+        }
+
+        /** n vertices, 4n random undirected edges with weights in [1, 1000]. */
+        private static CsrGraph randomGraph(int n) {
+            return randomGraph(n, 4);
+        }
+
+        /** n vertices, edgesPerVertex*n random undirected edges with weights in [1, 1000]. */
+        private static CsrGraph randomGraph(int n, int edgesPerVertex) {
+            java.util.Random rnd = new java.util.Random(23);
+            int m = n * edgesPerVertex;
+            int[] from = new int[m];
+            int[] to = new int[m];
+            int[] weight = new int[m];
+            for (int i = 0; i < m; i++) {
+                from[i] = i / edgesPerVertex;
+                to[i] = rnd.nextInt(n);
+                weight[i] = 1 + rnd.nextInt(1000);
+            }
+            return new CsrGraph(n, from, to, weight, m, true);
+        }
+
+        /**
+         * side*side intersections jittered off a 100-unit grid, whose coordinates go to xy; streets to the right
+         * and down, 15% of them missing, weighted by their length rounded up, and at half weight on the highways.
+         */
+        private static CsrGraph roadGraph(int side, int[][] xy) {
+            java.util.Random rnd = new java.util.Random(23);
+            int n = side * side;
+            xy[0] = new int[n];
+            xy[1] = new int[n];
+            for (int u = 0; u < n; u++) {
+                xy[0][u] = (u % side) * 100 + rnd.nextInt(61) - 30;
+                xy[1][u] = (u / side) * 100 + rnd.nextInt(61) - 30;
+            }
+            int m = 2 * side * (side - 1);
+            int[] from = new int[m];
+            int[] to = new int[m];
+            int[] weight = new int[m];
+            int e = 0;
+            for (int r = 0; r < side; r++) {
+                for (int c = 0; c < side; c++) {
+                    int u = r * side + c;
+                    for (int dir = 0; dir < 2; dir++) {
+                        int w = dir == 0 ? u + 1 : u + side;
+                        boolean highway = dir == 0 ? r % 16 == 0 : c % 16 == 0;
+                        if ((dir == 0 ? c + 1 >= side : r + 1 >= side) || (!highway && rnd.nextInt(100) < 15)) {
+                            continue;
+                        }
+                        int length = (int) Math.ceil(Math.hypot(xy[0][u] - xy[0][w], xy[1][u] - xy[1][w]));
+                        from[e] = u;
+                        to[e] = w;
+                        weight[e++] = highway ? (length + 1) / 2 : length;
+                    }
+                }
+            }
+            return new CsrGraph(n, from, to, weight, e, true);
+        }
+
+       /**
+        * private static void benchRadix(int n)
+        *
+        * RadixHeap against FibonacciHeap on monotone workloads, to find where the buckets beat the trees:
+        * the hold model (a heap of n keys; each op is a deleteMin, an insert of the last key plus a random
+        * increment below C, and on every other op a decreaseKey of that new node that stays above the last key)
+        * for C from 2^4 to 2^30, and Dijkstra and A* through IndexedRadixHeap on the grid and road-like graphs
+        * of benchGraphs (ns/op per vertex).
+        */
+        private static void benchRadix(int n) {
+            for (int bits : new int[] {4, 10, 20, 30}) {
+                int range = 1 << bits;
+                measure("monotone hold", "Fibonacci", n, "C=2^" + bits, new Run() {
+                    FibonacciHeap heap;
+
+                    public void setUp() {
+                        java.util.Random rnd = new java.util.Random(24);
+                        this.heap = new FibonacciHeap();
+                        for (int i = 0; i < n; i++) {
+                            this.heap.insert(rnd.nextInt(range));
+                        }
+                    }
+
+                    public long run() {
+                        java.util.Random rnd = new java.util.Random(5);
+                        for (int i = 0; i < n; i++) {
+                            int last = this.heap.findMin().getKey();
+                            this.heap.deleteMin();
+                            int key = last + rnd.nextInt(range);
+                            FibonacciHeap.HeapNode x = this.heap.insert(key);
+                            if ((i & 1) == 0) {
+                                this.heap.decreaseKey(x, rnd.nextInt(key - last + 1));
+                            }
+                        }
+                        return n;
+                    }
+                });
+                measure("monotone hold", "Radix", n, "C=2^" + bits, new Run() {
+                    RadixHeap heap;
+
+                    public void setUp() {
+                        java.util.Random rnd = new java.util.Random(24);
+                        this.heap = new RadixHeap();
+                        for (int i = 0; i < n; i++) {
+                            this.heap.insert(rnd.nextInt(range));
+                        }
+                    }
+
+                    public long run() {
+                        java.util.Random rnd = new java.util.Random(5);
+                        for (int i = 0; i < n; i++) {
+                            int last = this.heap.findMin().getKey();
+                            this.heap.deleteMin();
+                            int key = last + rnd.nextInt(range);
+                            RadixHeap.Node x = this.heap.insert(key);
+                            if ((i & 1) == 0) {
+                                this.heap.decreaseKey(x, rnd.nextInt(key - last + 1));
+                            }
+                        }
+                        return n;
+                    }
+                });
+            }
+            int side = Math.max(2, (int) Math.sqrt(n));
+            int[][] xy = new int[2][];
+            CsrGraph[] graphs = {gridGraph(side), roadGraph(side, xy)};
+            String[] labels = {"grid", "road-like"};
+            for (int g = 0; g < graphs.length; g++) {
+                CsrGraph graph = graphs[g];
+                int v = graph.numVertices();
+                measure("dijkstra", "Fibonacci", v, labels[g], () -> {
+                    sink += GraphAlgorithms.dijkstra(graph, 0, new IndexedFibonacciHeap(v), null)[v - 1];
+                    return v;
+                });
+                measure("dijkstra", "Radix", v, labels[g], () -> {
+                    sink += GraphAlgorithms.dijkstra(graph, 0, new IndexedRadixHeap(v), null)[v - 1];
+                    return v;
+                });
+            }
+            CsrGraph road = graphs[1];
+            int v = road.numVertices();
+            java.util.function.IntUnaryOperator bound =
+                    u -> (int) (0.5 * Math.hypot(xy[0][u] - xy[0][v - 1], xy[1][u] - xy[1][v - 1]));
+            measure("astar", "Fibonacci", v, "road-like", () -> {
+                sink += GraphAlgorithms.astar(road, 0, v - 1, bound, new IndexedFibonacciHeap(v), null);
+                return v;
+            });
+            measure("astar", "Radix", v, "road-like", () -> {
+                sink += GraphAlgorithms.astar(road, 0, v - 1, bound, new IndexedRadixHeap(v), null);
+                return v;
+            });
+        }
+
+       /**
+        * private static void benchEngines(int n, Distribution d, int[] keys)
+        *
+        * The same four workloads through the MeldableHeap interface on every engine: FibonacciHeap, PairingHeap,
+        * RankPairingHeap and HollowHeap. Each run times the whole life of the heap, including the final drain,
+        * since the engines defer different amounts of work to deleteMin:
+        * insert+drain (n inserts, n deleteMins), decreaseKey+drain (after a first deleteMin, n/2 decreaseKeys below
+        * every key, then the drain), delete+drain (n/2 deletes instead) and meld+drain (n/64 heaps of 64 keys
+        * melded into one). ns/op is per key.
+        */
+        private static void benchEngines(int n, Distribution d, int[] keys) {
+            int[] targets = targets(keys, n / 2, d);
+            benchEngine("Fibonacci", FibonacciHeap::new, n, d, keys, targets);
+            benchEngine("Pairing", PairingHeap::new, n, d, keys, targets);
+            benchEngine("RankPairing", RankPairingHeap::new, n, d, keys, targets);
+            benchEngine("Hollow", HollowHeap::new, n, d, keys, targets);
+        }
+
+        private static <H extends MeldableHeap<H, N>, N extends MeldableHeap.Node> void benchEngine(String impl,
+                java.util.function.Supplier<H> factory, int n, Distribution d, int[] keys, int[] targets) {
+            measure("insert+drain", impl, n, d, () -> {
+                H heap = factory.get();
+                for (int i = 0; i < n; i++) {
+                    heap.insert(keys[i]);
+                }
+                drain(heap);
+                return n;
+            });
+            for (boolean decrease : new boolean[] {true, false}) {
+                measure(decrease ? "decreaseKey+drain" : "delete+drain", impl, n, d, () -> {
+                    H heap = factory.get();
+                    @SuppressWarnings("unchecked")
+                    N[] nodes = (N[]) new MeldableHeap.Node[n];
+                    for (int i = 0; i < n; i++) {
+                        nodes[i] = heap.insert(keys[i]);
+                    }
+                    N minNode = heap.findMin();
+                    heap.deleteMin(); // so there are trees to cut from
+                    for (int i : targets) {
+                        if (nodes[i] == minNode) {
+                            continue;
+                        }
+                        if (decrease) {
+                            heap.decreaseKey(nodes[i], 2 * n); // stays distinct, drops below every original key
+                        }
+                        else {
+                            heap.delete(nodes[i]);
+                        }
+                    }
+                    drain(heap);
+                    return n;
+                });
+            }
+            measure("meld+drain", impl, n, d, () -> {
+                H heap = factory.get();
+                for (int i = 0; i < n; i += 64) {
+                    H part = factory.get();
+                    for (int j = i; j < Math.min(n, i + 64); j++) {
+                        part.insert(keys[j]);
+                    }
+                    heap.meld(part);
+                }
+                drain(heap);
+                return n;
+            });
+        }
+
+       /**
+        * private static void benchArrayHeap(int n, Distribution d, int[] keys)
+        *
+        * ArrayFibonacciHeap against the object heap on the footprint comparison's workload: insert n keys, then
+        * deleteMin n/2 of them. The arrays are sized up front, as a long-lived heap's would be. ns/op is per key.
+        */
+        private static void benchArrayHeap(int n, Distribution d, int[] keys) {
+            measure("insert+deleteMin/2", "Fibonacci", n, d, () -> {
+                FibonacciHeap heap = new FibonacciHeap();
+                for (int i = 0; i < n; i++) {
+                    heap.insert(keys[i]);
+                }
+                for (int i = 0; i < n / 2; i++) {
+                    sink += heap.findMin().getKey();
+                    heap.deleteMin();
+                }
+                return n;
+            });
+            measure("insert+deleteMin/2", "Array", n, d, () -> {
+                ArrayFibonacciHeap heap = new ArrayFibonacciHeap(n);
+                for (int i = 0; i < n; i++) {
+                    heap.insert(keys[i]);
+                }
+                for (int i = 0; i < n / 2; i++) {
+                    sink += heap.findMin();
+                    heap.deleteMin();
+                }
+                return n;
+            });
+        }
+
+        private static void drain(MeldableHeap<?, ?> heap) {
+            while (!heap.isEmpty()) {
+                sink += heap.findMin().getKey();
+                heap.deleteMin();
+            }
+        }
+
+        private static void fenwickAdd(int[] tree, int key, int delta) {
+            for (int i = key + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        /** Number of keys smaller than key. */
+        private static int fenwickCount(int[] tree, int key) {
+            int res = 0;
+            for (int i = key; i > 0; i -= i & -i) {
+                res += tree[i];
+            }
+            return res;
+        }
+
+        private static void benchMixed(int n, Distribution d, int[] keys) {
+            int ops = n;
+            int capacity = n + ops;
+            // 50% insert, 25% deleteMin, 25% decreaseKey on a heap that starts with n/2 keys.
+            // A node's slot is its key modulo capacity, and decreaseKey subtracts capacity, so keys stay distinct
+            // and the slot of the deleted minimum is known without a side table.
+            measure("mixed", "Fibonacci", n, d, new Run() {
+                FibonacciHeap heap;
+                FibonacciHeap.HeapNode[] live;
+                int nextKey;
+
+                public void setUp() {
+                    this.heap = new FibonacciHeap();
+                    this.live = new FibonacciHeap.HeapNode[capacity];
+                    for (int i = 0; i < n / 2; i++) {
+                        this.live[keys[i]] = this.heap.insert(keys[i]);
+                    }
+                    this.nextKey = n;
+                }
+
+                public long run() {
+                    java.util.Random rnd = new java.util.Random(5);
+                    for (int i = 0; i < ops; i++) {
+                        int c = i & 3;
+                        if (c < 2 || this.heap.isEmpty()) {
+                            this.live[this.nextKey] = this.heap.insert(this.nextKey);
+                            this.nextKey++;
+                        }
+                        else if (c == 2) {
+                            int key = this.heap.findMin().getKey();
+                            this.live[Math.floorMod(key, capacity)] = null;
+                            this.heap.deleteMin();
+                            sink += key;
+                        }
+                        else {
+                            FibonacciHeap.HeapNode node = null;
+                            while (node == null) {
+                                node = this.live[rnd.nextInt(this.nextKey)];
+                            }
+                            this.heap.decreaseKey(node, capacity);
+                        }
+                    }
+                    return ops;
+                }
+            });
+            if (n > 100_000) { // PriorityQueue has no decreaseKey; remove(Object) + add is O(n)
+                return;
+            }
+            measure("mixed", "PriorityQueue", n, d, new Run() {
+                java.util.PriorityQueue<Integer> pq;
+                boolean[] live;
+                int nextKey;
+
+                public void setUp() {
+                    this.pq = new java.util.PriorityQueue<>();
+                    this.live = new boolean[capacity];
+                    for (int i = 0; i < n / 2; i++) {
+                        this.pq.add(keys[i]);
+                        this.live[keys[i]] = true;
+                    }
+                    this.nextKey = n;
+                }
+
+                public long run() {
+                    java.util.Random rnd = new java.util.Random(5);
+                    int[] current = new int[capacity];
+                    for (int i = 0; i < capacity; i++) {
+                        current[i] = i;
+                    }
+                    for (int i = 0; i < ops; i++) {
+                        int c = i & 3;
+                        if (c < 2 || this.pq.isEmpty()) {
+                            this.pq.add(this.nextKey);
+                            this.live[this.nextKey++] = true;
+                        }
+                        else if (c == 2) {
+                            int key = this.pq.poll();
+                            this.live[Math.floorMod(key, capacity)] = false;
+                            sink += key;
+                        }
+                        else {
+                            int slot;
+                            do {
+                                slot = rnd.nextInt(this.nextKey);
+                            } while (!this.live[slot]);
+                            this.pq.remove(current[slot]);
+                            current[slot] -= capacity;
+                            this.pq.add(current[slot]);
+                        }
+                    }
+                    return ops;
+                }
+            });
+        }
+    }
+
+   /**
+    * public static class HeapMetrics
+    *
+    * Per-heap operation counters. Only the thread operating on the heap writes them, so an update is a plain
+    * opaque store of a long (no lock, no CAS), which is cheap enough to stay on in production.
+    * Any thread may read them at any time; a reader sees every count that was written, possibly slightly late.
+    */
+    public static class HeapMetrics {
+
+        public enum Counter {
+            /** Link operations made by consolidate. */
+            LINKS,
+            /** Cut operations, including every level of a cascading cut. */
+            CUTS,
+            /** decreaseKey calls that had to cut the node from its parent. */
+            CASCADES,
+            /** Sum of the cuts made by all cascades; divide by CASCADES for the mean depth. */
+            CASCADE_DEPTH_TOTAL,
+            /** Largest number of cuts made by a single cascade. */
+            CASCADE_DEPTH_MAX,
+            /** Calls to consolidate. */
+            CONSOLIDATIONS,
+            /** Sum of the root-list lengths seen when a consolidation started. */
+            ROOTS_BEFORE_CONSOLIDATION_TOTAL,
+            /** Longest root list seen when a consolidation started. */
+            ROOTS_BEFORE_CONSOLIDATION_MAX,
+            /** Times a node became marked. */
+            MARKS
+        }
+
+        private static final java.lang.invoke.VarHandle COUNTS =
+                java.lang.invoke.MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final FibonacciHeap heap;
+        private final long[] counts = new long[Counter.values().length];
+
+        HeapMetrics(FibonacciHeap heap) {
+            this.heap = heap;
+        }
+
+        void increment(Counter c) {
+            int i = c.ordinal();
+            COUNTS.setOpaque(this.counts, i, (long) COUNTS.getOpaque(this.counts, i) + 1);
+        }
+
+        private void add(Counter c, long amount) {
+            int i = c.ordinal();
+            COUNTS.setOpaque(this.counts, i, (long) COUNTS.getOpaque(this.counts, i) + amount);
+        }
+
+        private void max(Counter c, long value) {
+            int i = c.ordinal();
+            if (value > (long) COUNTS.getOpaque(this.counts, i)) {
+                COUNTS.setOpaque(this.counts, i, value);
+            }
+        }
+
+        void recordCascade(long depth) {
+            increment(Counter.CASCADES);
+            add(Counter.CASCADE_DEPTH_TOTAL, depth);
+            max(Counter.CASCADE_DEPTH_MAX, depth);
+        }
+
+        void recordConsolidation(int roots) {
+            increment(Counter.CONSOLIDATIONS);
+            add(Counter.ROOTS_BEFORE_CONSOLIDATION_TOTAL, roots);
+            max(Counter.ROOTS_BEFORE_CONSOLIDATION_MAX, roots);
+        }
+
+       /**
+        * public long get(Counter c)
+        *
+        * Return the current value of counter c.
+        *
+        * Complexity: O(1)
+        */
+        public long get(Counter c) {
+            return (long) COUNTS.getOpaque(this.counts, c.ordinal());
+        }
+
+       /**
+        * public int getMarkedNodes()
+        *
+        * Return the number of nodes marked right now.
+        *
+        * Complexity: O(1)
+        */
+        public int getMarkedNodes() {
+            return this.heap.countMarkNodes;
+        }
+
+       /**
+        * public int getSize()
+        *
+        * Return the number of nodes in the heap right now (lazily deleted nodes excluded, as in size()).
+        *
+        * Complexity: O(1)
+        */
+        public int getSize() {
+            return this.heap.size();
+        }
+
+       /**
+        * public String toString()
+        *
+        * Return all counters and gauges as "name=value" pairs.
+        *
+        * Complexity: O(1)
+        */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Counter c : Counter.values()) {
+                sb.append(c.name().toLowerCase()).append('=').append(get(c)).append(' ');
+            }
+            return sb.append("marked_nodes=").append(getMarkedNodes())
+                    .append(" size=").append(getSize()).toString();
+        }
+    }
+
+   /**
+    * public static class HeapMetricsRegistry
+    *
+    * A named collection of heaps whose metrics are exported together. Registering keeps the heap reachable,
+    * so heaps that are discarded must be unregistered.
+    */
+    public static class HeapMetricsRegistry {
+
+        private final java.util.concurrent.ConcurrentHashMap<String, HeapMetrics> heaps =
+                new java.util.concurrent.ConcurrentHashMap<>();
+
+       /**
+        * public void register(String name, FibonacciHeap heap)
+        *
+        * Export heap's metrics under name, replacing any heap registered under the same name.
+        *
+        * Complexity: O(1)
+        */
+        public void register(String name, FibonacciHeap heap) {
+            this.heaps.put(name, heap.getMetrics());
+        }
+
+       /**
+        * public void unregister(String name)
+        *
+        * Stop exporting the heap registered under name.
+        *
+        * Complexity: O(1)
+        */
+        public void unregister(String name) {
+            this.heaps.remove(name);
+        }
+
+       /**
+        * public java.util.Map<String, HeapMetrics> all()
+        *
+        * Return a read-only live view of every registered heap's metrics by name.
+        *
+        * Complexity: O(1)
+        */
+        public java.util.Map<String, HeapMetrics> all() {
+            return java.util.Collections.unmodifiableMap(this.heaps);
+        }
+
+       /**
+        * public long sum(HeapMetrics.Counter c)
+        *
+        * Return counter c summed over all registered heaps. For the *_MAX counters use max instead.
+        *
+        * Complexity: O(h), h - number of registered heaps
+        */
+        public long sum(HeapMetrics.Counter c) {
+            long total = 0;
+            for (HeapMetrics m : this.heaps.values()) {
+                total += m.get(c);
+            }
+            return total;
+        }
+
+       /**
+        * public long max(HeapMetrics.Counter c)
+        *
+        * Return the largest value of counter c among all registered heaps.
+        *
+        * Complexity: O(h), h - number of registered heaps
+        */
+        public long max(HeapMetrics.Counter c) {
+            long res = 0;
+            for (HeapMetrics m : this.heaps.values()) {
+                res = Math.max(res, m.get(c));
+            }
+            return res;
+        }
+    }
+
+   /**
+    * abstract static class HeapShapeEvent
+    *
+    * Common fields of the heap's JFR events: the shape of the heap when the operation started
+    * (numTrees, size, potential) and its max rank when it ended. The max rank walks the root list,
+    * so it is only computed for events that pass the recording's threshold.
+    */
+    @jdk.jfr.Category("FibonacciHeap")
+    @jdk.jfr.StackTrace(false)
+    abstract static class HeapShapeEvent extends jdk.jfr.Event {
+        @jdk.jfr.Label("Trees")
+        int numTrees;
+
+        @jdk.jfr.Label("Size")
+        int size;
+
+        @jdk.jfr.Label("Potential")
+        int potential;
+
+        @jdk.jfr.Label("Max Rank")
+        int maxRank;
+    }
+
+    @jdk.jfr.Name("FibonacciHeap.DeleteMin")
+    @jdk.jfr.Label("Delete Min")
+    @jdk.jfr.Threshold("100 us")
+    static class DeleteMinEvent extends HeapShapeEvent {
+    }
+
+    @jdk.jfr.Name("FibonacciHeap.Consolidate")
+    @jdk.jfr.Label("Consolidate")
+    @jdk.jfr.Threshold("100 us")
+    static class ConsolidateEvent extends HeapShapeEvent {
+    }
+
+    @jdk.jfr.Name("FibonacciHeap.DecreaseKey")
+    @jdk.jfr.Label("Decrease Key")
+    @jdk.jfr.Threshold("100 us")
+    static class DecreaseKeyEvent extends HeapShapeEvent {
+    }
+
+    @jdk.jfr.Name("FibonacciHeap.CascadingCut")
+    @jdk.jfr.Label("Cascading Cut")
+    @jdk.jfr.Threshold("100 us")
+    static class CascadingCutEvent extends HeapShapeEvent {
+        @jdk.jfr.Label("Cuts")
+        int depth;
+    }
+
+   /**
+    * public static class HeapProfiler
+    *
+    * Latency histograms for the profiled operations of one heap, see FibonacciHeap.enableProfiling().
+    */
+    public static class HeapProfiler {
+
+        final LatencyHistogram deleteMin = new LatencyHistogram();
+        final LatencyHistogram consolidate = new LatencyHistogram();
+        final LatencyHistogram decreaseKey = new LatencyHistogram();
+        final LatencyHistogram cascadingCut = new LatencyHistogram();
+
+        long begin(HeapShapeEvent event, FibonacciHeap heap) {
+            if (event.isEnabled()) {
+                event.numTrees = heap.numTrees;
+                event.size = heap.size;
+                event.potential = heap.potential();
+                event.begin();
+            }
+            return System.nanoTime();
+        }
+
+        void end(HeapShapeEvent event, long start, LatencyHistogram histogram, FibonacciHeap heap) {
+            histogram.record(System.nanoTime() - start);
+            if (event.isEnabled()) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.maxRank = heap.isEmpty() ? 0 : heap.findMaxRank();
+                    event.commit();
+                }
+            }
+        }
+
+        /** Latency of deleteMin calls, including their consolidation. */
+        public LatencyHistogram getDeleteMin() {
+            return this.deleteMin;
+        }
+
+        /** Latency of consolidate calls. */
+        public LatencyHistogram getConsolidate() {
+            return this.consolidate;
+        }
+
+        /** Latency of decreaseKey calls, including their cascading cuts. */
+        public LatencyHistogram getDecreaseKey() {
+            return this.decreaseKey;
+        }
+
+        /** Latency of the cascading cut sequences started by decreaseKey. */
+        public LatencyHistogram getCascadingCut() {
+            return this.cascadingCut;
+        }
+
+        @Override
+        public String toString() {
+            return "deleteMin " + this.deleteMin + "\nconsolidate " + this.consolidate
+                    + "\ndecreaseKey " + this.decreaseKey + "\ncascadingCut " + this.cascadingCut;
+        }
+    }
+
+   /**
+    * public static class LatencyHistogram
+    *
+    * HDR-style histogram of nanosecond latencies: values below 64 are counted exactly, larger values
+    * in 32 linear sub-buckets per power of two, i.e. with at most ~3% relative error, over the whole long range.
+    * Written by a single thread; readers on other threads see each count atomically, possibly slightly late.
+    */
+    public static class LatencyHistogram {
+
+        private static final int SUB_BITS = 5;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+        private static final java.lang.invoke.VarHandle COUNTS =
+                java.lang.invoke.MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final long[] counts = new long[BUCKETS];
+        private volatile long totalCount;
+        private volatile long max;
+
+        static int indexOf(long value) {
+            if (value < 2 * SUB_COUNT) {
+                return (int) value;
+            }
+            int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS - 1;
+            return (shift + 1) * SUB_COUNT + (int) (value >>> shift) - SUB_COUNT;
+        }
+
+        static long highestValueAt(int index) {
+            if (index < 2 * SUB_COUNT) {
+                return index;
+            }
+            int shift = index / SUB_COUNT - 1;
+            long top = index % SUB_COUNT + SUB_COUNT;
+            return ((top + 1) << shift) - 1;
+        }
+
+       /**
+        * public void record(long nanos)
+        *
+        * Count one latency value. Negative values are counted as 0.
+        *
+        * Complexity: O(1)
+        */
+        public void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            int i = indexOf(value);
+            COUNTS.setOpaque(this.counts, i, (long) COUNTS.getOpaque(this.counts, i) + 1);
+            this.totalCount = this.totalCount + 1;
+            if (value > this.max) {
+                this.max = value;
+            }
+        }
+
+       /**
+        * public long getTotalCount()
+        *
+        * Return the number of values recorded.
+        *
+        * Complexity: O(1)
+        */
+        public long getTotalCount() {
+            return this.totalCount;
+        }
+
+       /**
+        * public long getMax()
+        *
+        * Return the largest value recorded.
+        *
+        * Complexity: O(1)
+        */
+        public long getMax() {
+            return this.max;
+        }
+
+       /**
+        * public long getValueAtPercentile(double percentile)
+        *
+        * Return the value below or at which percentile percent of the recorded values fall
+        * (the upper edge of the bucket holding that rank), or 0 if nothing was recorded.
+        *
+        * Complexity: O(number of buckets)
+        */
+        public long getValueAtPercentile(double percentile) {
+            long total = this.totalCount;
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += (long) COUNTS.getOpaque(this.counts, i);
+                if (seen >= rank) {
+                    return Math.min(highestValueAt(i), this.max);
+                }
+            }
+            return this.max;
+        }
+
+       /**
+        * public void reset()
+        *
+        * Forget every recorded value. Must be called from the writing thread.
+        *
+        * Complexity: O(number of buckets)
+        */
+        public void reset() {
+            java.util.Arrays.fill(this.counts, 0);
+            this.totalCount = 0;
+            this.max = 0;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getTotalCount() + " p50=" + getValueAtPercentile(50) + "ns p90=" + getValueAtPercentile(90)
+                    + "ns p99=" + getValueAtPercentile(99) + "ns p99.9=" + getValueAtPercentile(99.9)
+                    + "ns max=" + getMax() + "ns";
+        }
+    }
+
+   /**
+    * private static class NodeFrontier
+    *
+    * A binary min-heap of HeapNodes ordered by key, used to walk a Fibonacci heap in key order without changing it.
+    * Its array grows as needed and is kept by the owner between uses.
+    */
+    private static class NodeFrontier {
+        private HeapNode[] nodes = new HeapNode[16];
+        private int size;
+
+        boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        void push(HeapNode node) {
+            if (this.size == this.nodes.length) {
+                this.nodes = java.util.Arrays.copyOf(this.nodes, 2 * this.size);
+            }
+            int i = this.size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (this.nodes[parent].key <= node.key) {
+                    break;
+                }
+                this.nodes[i] = this.nodes[parent];
+                i = parent;
+            }
+            this.nodes[i] = node;
+        }
+
+        /** Push node and all of its siblings. */
+        void pushSiblings(HeapNode node) {
+            if (node == null) {
+                return;
+            }
+            HeapNode iter = node;
+            do {
+                push(iter);
+                iter = iter.next;
+            } while (iter != node);
+        }
+
+        HeapNode poll() {
+            HeapNode res = this.nodes[0];
+            HeapNode last = this.nodes[--this.size];
+            this.nodes[this.size] = null;
+            if (this.size > 0) {
+                int i = 0;
+                int half = this.size >>> 1;
+                while (i < half) {
+                    int c = 2 * i + 1;
+                    if (c + 1 < this.size && this.nodes[c + 1].key < this.nodes[c].key) {
+                        c++;
+                    }
+                    if (last.key <= this.nodes[c].key) {
+                        break;
+                    }
+                    this.nodes[i] = this.nodes[c];
+                    i = c;
+                }
+                this.nodes[i] = last;
+            }
+            return res;
+        }
+
+        void clear() {
+            java.util.Arrays.fill(this.nodes, 0, this.size, null);
+            this.size = 0;
+        }
+    }
+
+}
+
+/**
+ * MeldableHeap
+ *
+ * The public operations of FibonacciHeap that every meldable heap engine in this file shares, so a workload can be
+ * written once and run on FibonacciHeap, FibonacciHeap.PairingHeap, FibonacciHeap.RankPairingHeap and
+ * FibonacciHeap.HollowHeap. H is the heap type itself (meld only takes a heap of the same engine) and N its node
+ * handle. Nodes are handles to int keys: insert returns one, and decreaseKey and delete take one that is still in
+ * the heap; a node already removed by deleteMin or delete is rejected with IllegalStateException, and a negative
+ * delta with IllegalArgumentException, before the heap is changed. meld(heap2) leaves heap2 empty, and the nodes
+ * that were in heap2 now belong to this heap; meld(this) does nothing.
+ */
+interface MeldableHeap<H extends MeldableHeap<H, N>, N extends MeldableHeap.Node> {
+
+    /** A handle to a key in a MeldableHeap. */
+    interface Node {
+        int getKey();
+    }
+
+    /** Creates a node which contains the given key, inserts it into the heap and returns it. */
+    N insert(int key);
+
+    /** Returns the node of the heap whose key is minimal, or null if the heap is empty. */
+    N findMin();
+
+    /** Deletes the node containing the minimum key; does nothing if the heap is empty. */
+    void deleteMin();
+
+    /** Decreases the key of the node x, which belongs to the heap, by a non-negative value delta. */
+    void decreaseKey(N x, int delta);
+
+    /** Deletes the node x, which belongs to the heap. */
+    void delete(N x);
+
+    /** Moves every node of heap2 into this heap, leaving heap2 empty. */
+    void meld(H heap2);
+
+    /** Returns the number of elements in the heap. */
+    int size();
+
+    /** Returns true if and only if the heap is empty. */
+    boolean isEmpty();
 }